@@ -0,0 +1,176 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import io.github.grimch.doclet.prolog.Atom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmark for the classification, escaping and rendering of {@link Atom}s.
+ * <p>
+ * Each invocation constructs and renders a batch of atoms drawn from one of several realistic
+ * distributions, once with the current {@link Atom} and once with {@link LegacyAtom}, a copy of the
+ * former regex-based implementation kept here as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtomBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] QUALIFIED_NAMES = {
+            "java.lang.String", "java.util.List", "java.util.Map", "java.io.Serializable",
+            "java.lang.Override", "io.github.grimch.doclet.sample_module.types.basic.C1",
+            "io.github.grimch.doclet.sample_module.types.basic.TestAnno", "java.util.concurrent.ConcurrentHashMap"
+    };
+
+    private static final String[] SIMPLE_NAMES = {
+            "m1", "getList", "publicInt", "value", "toString", "<init>", "PUBLIC_STATIC_FINAL_STRING",
+            "C1", "public", "static", "final", "declared", "null", "int"
+    };
+
+    private static final String[] DOC_COMMENTS = {
+            "",
+            "Returns the value of this nested class.\\n@return the value",
+            " Represents a basic public non-sealed class demonstrating various field types,\\n constructors, methods,"
+                    + " and nested types. It implements the {@link I1} interface\\n and is part of a sealed hierarchy."
+                    + " The class' fields aren't all accessible.\\n",
+            " A method that doesn't return anything.\\n @param input the caller's input\\n @throws IOException if"
+                    + " the stream can't be read\\n"
+    };
+
+    /**
+     * The distribution of atom values: qualified names, simple names, doc comments, or a mix of all of them
+     * weighted like a typical type file.
+     */
+    @Param({"qualified", "simple", "docComment", "mixed"})
+    public String distribution;
+
+    private String[] values;
+    private Atom[] atoms;
+    private LegacyAtom[] legacyAtoms;
+    private final StringBuilder out = new StringBuilder(64 * 1024);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new String[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            values[i] = switch (distribution) {
+                case "qualified" -> pick(random, QUALIFIED_NAMES);
+                case "simple" -> pick(random, SIMPLE_NAMES);
+                case "docComment" -> pick(random, DOC_COMMENTS);
+                default -> {
+                    int r = random.nextInt(10);
+                    yield r < 3 ? pick(random, QUALIFIED_NAMES) : r < 9 ? pick(random, SIMPLE_NAMES) : pick(random, DOC_COMMENTS);
+                }
+            };
+        }
+        atoms = new Atom[BATCH_SIZE];
+        legacyAtoms = new LegacyAtom[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            atoms[i] = new Atom(values[i]);
+            legacyAtoms[i] = new LegacyAtom(values[i]);
+        }
+    }
+
+    private static String pick(Random random, String[] candidates) {
+        return candidates[random.nextInt(candidates.length)];
+    }
+
+    @Benchmark
+    public int constructAndRender() throws IOException {
+        out.setLength(0);
+        for (String value : values) {
+            new Atom(value).appendTo(out);
+        }
+        return out.length();
+    }
+
+    @Benchmark
+    public int constructAndRenderLegacy() {
+        out.setLength(0);
+        for (String value : values) {
+            out.append(new LegacyAtom(value).toString());
+        }
+        return out.length();
+    }
+
+    @Benchmark
+    public int render() throws IOException {
+        out.setLength(0);
+        for (Atom atom : atoms) {
+            atom.appendTo(out);
+        }
+        return out.length();
+    }
+
+    @Benchmark
+    public int renderLegacy() {
+        out.setLength(0);
+        for (LegacyAtom atom : legacyAtoms) {
+            out.append(atom.toString());
+        }
+        return out.length();
+    }
+
+    /**
+     * The former implementation of {@link Atom}: unconditional escaping in the constructor and
+     * a regular expression match on every rendering.
+     */
+    static final class LegacyAtom {
+        private final String value;
+
+        LegacyAtom(String value) {
+            this.value = value.replace("'", "''");
+        }
+
+        @Override
+        public String toString() {
+            if (value.matches("^[a-z][a-zA-Z0-9_]*$") &&
+                !value.equals("true") && !value.equals("false") && !value.equals("null")) {
+                return value;
+            } else {
+                return "'" + value + "'";
+            }
+        }
+    }
+}
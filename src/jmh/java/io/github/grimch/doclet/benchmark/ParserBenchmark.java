@@ -0,0 +1,103 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrettyPrinter;
+import io.github.grimch.doclet.prolog.PrologParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmark for {@link PrologParser} reading a multi-megabyte file of synthetic type facts, rendered
+ * compact or pretty printed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    /**
+     * The number of type facts in the parsed text.
+     */
+    @Param({"100", "1000"})
+    public int types;
+
+    /**
+     * The number of members of each type fact.
+     */
+    @Param({"50"})
+    public int members;
+
+    /**
+     * Whether the facts are pretty printed, as in the full output.
+     */
+    @Param({"false", "true"})
+    public boolean prettyPrint;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        SyntheticTerms terms = new SyntheticTerms(42, 2);
+        PrettyPrinter prettyPrinter = new PrettyPrinter();
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < types; i++) {
+            Fact fact = terms.typeFact("Synthetic" + i, members);
+            if (prettyPrint) {
+                out.append(prettyPrinter.prettyPrint(fact));
+            } else {
+                out.append(fact).append('.');
+            }
+            out.append(System.lineSeparator());
+        }
+        text = out.toString();
+    }
+
+    @Benchmark
+    public int parse() throws IOException {
+        int count = 0;
+        try (PrologParser parser = new PrologParser(new StringReader(text))) {
+            while (parser.next() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrettyPrinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmark for {@link PrettyPrinter#prettyPrint(Fact)} and its streaming variant on synthetic type facts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrettyPrinterBenchmark {
+    /**
+     * The number of members of the printed type fact.
+     */
+    @Param({"10", "100", "2000"})
+    public int members;
+
+    /**
+     * The maximum nesting depth of generic type arguments.
+     */
+    @Param({"1", "4"})
+    public int depth;
+
+    private final PrettyPrinter prettyPrinter = new PrettyPrinter();
+    private Fact typeFact;
+    private final StringBuilder out = new StringBuilder(1024 * 1024);
+
+    @Setup
+    public void setUp() {
+        typeFact = new SyntheticTerms(42, depth).typeFact("Synthetic", members);
+    }
+
+    @Benchmark
+    public String prettyPrint() {
+        return prettyPrinter.prettyPrint(typeFact);
+    }
+
+    @Benchmark
+    public int prettyPrintToAppendable() throws IOException {
+        out.setLength(0);
+        prettyPrinter.prettyPrint(typeFact, out);
+        return out.length();
+    }
+}
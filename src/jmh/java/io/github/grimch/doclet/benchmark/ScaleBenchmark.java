@@ -0,0 +1,235 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import io.github.grimch.doclet.LogiDoclet;
+
+import javax.tools.DocumentationTool;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end scale benchmark: generates a {@link SyntheticCodebase}, runs the {@link LogiDoclet} on it through the
+ * system {@link DocumentationTool} and reports wall time, peak heap, allocated bytes and allocation rate, and the
+ * number and size of the written files.
+ * <p>
+ * Usage:
+ * <pre>
+ * ScaleBenchmark [-packages &lt;n,n,...&gt;] [-types &lt;n&gt;] [-members &lt;n&gt;] [-depth &lt;n&gt;]
+ *                [-annotations &lt;n&gt;] [-javadoc &lt;n&gt;] [-keep] [-- &lt;doclet options&gt;]
+ * </pre>
+ * {@code -packages} takes a comma separated list of package counts; the benchmark generates and documents one
+ * codebase per count, so a single invocation shows how the doclet scales. The options after {@code --} are passed
+ * to the doclet, e.g. {@code -- -outputMode minimal -threads 4}. Generated sources and output are deleted after
+ * every run unless {@code -keep} is given.
+ * <p>
+ * The peak heap is the sum of the peak usage of all heap memory pools since the start of the run. The allocated
+ * bytes are sampled per thread every {@value #SAMPLE_INTERVAL_MILLIS} ms, so allocations of short-lived writer
+ * threads after their last sample are not counted.
+ */
+public final class ScaleBenchmark {
+    private static final long SAMPLE_INTERVAL_MILLIS = 50;
+
+    private ScaleBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The command line arguments, see the class documentation.
+     * @throws Exception if generating the sources or cleaning up fails, or the doclet run is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        List<Integer> packageCounts = List.of(10);
+        int types = 10;
+        int members = 10;
+        int depth = 4;
+        int annotations = 3;
+        int javadoc = 10;
+        boolean keep = false;
+        List<String> docletOptions = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-packages" -> packageCounts = Stream.of(args[++i].split(",")).map(Integer::valueOf).toList();
+                case "-types" -> types = Integer.parseInt(args[++i]);
+                case "-members" -> members = Integer.parseInt(args[++i]);
+                case "-depth" -> depth = Integer.parseInt(args[++i]);
+                case "-annotations" -> annotations = Integer.parseInt(args[++i]);
+                case "-javadoc" -> javadoc = Integer.parseInt(args[++i]);
+                case "-keep" -> keep = true;
+                case "--" -> {
+                    docletOptions.addAll(List.of(args).subList(i + 1, args.length));
+                    i = args.length;
+                }
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        System.out.printf("%8s %8s %10s %10s %12s %10s %8s %12s%n",
+                "packages", "types", "wall ms", "peak MB", "alloc MB", "MB/s", "files", "output KB");
+        for (int packages : packageCounts) {
+            SyntheticCodebase codebase = new SyntheticCodebase(packages, types, members, depth, annotations, javadoc);
+            Path root = Files.createTempDirectory("logidoclet-scale");
+            try {
+                Result result = run(codebase, root, docletOptions);
+                System.out.printf("%8d %8d %10d %10.1f %12.1f %10.1f %8d %12.1f%n",
+                        packages, codebase.typeCount(), result.wallMillis, mb(result.peakHeapBytes),
+                        mb(result.allocatedBytes), mb(result.allocatedBytes) * 1000.0 / Math.max(1, result.wallMillis),
+                        result.outputFiles, result.outputBytes / 1024.0);
+            } finally {
+                if (keep) {
+                    System.out.println("Kept " + root);
+                } else {
+                    delete(root);
+                }
+            }
+        }
+    }
+
+    private static Result run(SyntheticCodebase codebase, Path root, List<String> docletOptions) throws Exception {
+        Path sources = root.resolve("src");
+        Path output = root.resolve("out");
+        codebase.generate(sources);
+
+        List<String> args = new ArrayList<>(List.of(
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", output.toString(),
+                "--source-path", sources.toString(),
+                "-subpackages", SyntheticCodebase.MODULE_NAME));
+        args.addAll(docletOptions);
+
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        AllocationSampler sampler = new AllocationSampler();
+        sampler.start();
+
+        long start = System.nanoTime();
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        int exitCode = tool.run(null, null, null, args.toArray(String[]::new));
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long allocatedBytes = sampler.finish();
+        long peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        if (exitCode != 0) {
+            System.err.println("Javadoc failed with exit code " + exitCode + ", sources kept in " + sources);
+        }
+
+        long outputFiles = 0;
+        long outputBytes = 0;
+        try (Stream<Path> files = Files.walk(output)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                outputFiles++;
+                outputBytes += Files.size(file);
+            }
+        }
+        return new Result(wallMillis, peakHeapBytes, allocatedBytes, outputFiles, outputBytes);
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private record Result(long wallMillis, long peakHeapBytes, long allocatedBytes, long outputFiles,
+                          long outputBytes) {
+    }
+
+    /**
+     * Samples the allocated bytes of all live threads until it is finished, remembering the last value seen for
+     * every thread so that allocations of threads terminating during the run are counted up to their last sample.
+     */
+    private static final class AllocationSampler extends Thread {
+        private final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final Map<Long, Long> baseline = new HashMap<>();
+        private final Map<Long, Long> latest = new HashMap<>();
+        private volatile boolean running = true;
+
+        AllocationSampler() {
+            super("logidoclet-allocation-sampler");
+            setDaemon(true);
+            sample(baseline);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                sample(latest);
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Stops sampling, takes a final sample and returns the bytes allocated since the sampler was created.
+         */
+        long finish() throws InterruptedException {
+            running = false;
+            interrupt();
+            join();
+            sample(latest);
+            long allocated = 0;
+            for (Map.Entry<Long, Long> entry : latest.entrySet()) {
+                if (entry.getKey() != getId()) {
+                    allocated += entry.getValue() - baseline.getOrDefault(entry.getKey(), 0L);
+                }
+            }
+            return allocated;
+        }
+
+        private void sample(Map<Long, Long> target) {
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] >= 0) {
+                    target.put(ids[i], bytes[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a synthetic Java source tree for end-to-end scale runs of the doclet.
+ * <p>
+ * The tree is a single module {@value #MODULE_NAME} with a configurable number of packages, each holding a
+ * configurable number of types. Every fourth type is an interface with default methods, every fourth an enum and
+ * the rest are classes implementing the interface of their group. Classes and interfaces declare bounded type
+ * parameters, their methods return generic types nested up to the configured depth and their fields reference a
+ * type of the next package, so the generated facts contain cross-package references. All types, methods and fields
+ * carry the configured number of annotations and a Javadoc comment of the configured length.
+ */
+final class SyntheticCodebase {
+    /**
+     * The name of the generated module, which is also the prefix of all generated packages.
+     */
+    static final String MODULE_NAME = "synthetic";
+
+    private static final String ANNOTATION_PACKAGE = MODULE_NAME + ".annotations";
+    private static final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod "
+            + "tempor incididunt ut labore et dolore magna aliqua.";
+
+    private final int packages;
+    private final int typesPerPackage;
+    private final int membersPerType;
+    private final int genericDepth;
+    private final int annotations;
+    private final int javadocLines;
+
+    /**
+     * @param packages        The number of packages.
+     * @param typesPerPackage The number of top level types per package.
+     * @param membersPerType  The number of methods per type; types also get half as many fields.
+     * @param genericDepth    The nesting depth of generic method return types.
+     * @param annotations     The number of annotations on every type, method and field.
+     * @param javadocLines    The number of description lines of every Javadoc comment.
+     */
+    SyntheticCodebase(int packages, int typesPerPackage, int membersPerType, int genericDepth, int annotations,
+                      int javadocLines) {
+        this.packages = packages;
+        this.typesPerPackage = typesPerPackage;
+        this.membersPerType = membersPerType;
+        this.genericDepth = genericDepth;
+        this.annotations = annotations;
+        this.javadocLines = javadocLines;
+    }
+
+    /**
+     * @return The total number of generated types, including the annotation types.
+     */
+    int typeCount() {
+        return packages * typesPerPackage + annotations;
+    }
+
+    /**
+     * Writes the module descriptor and all source files below the given source root.
+     *
+     * @param sourceRoot The source root, which is created if needed.
+     * @throws IOException if a file cannot be written.
+     */
+    void generate(Path sourceRoot) throws IOException {
+        StringBuilder moduleInfo = new StringBuilder();
+        javadoc(moduleInfo, "", "The synthetic module.");
+        moduleInfo.append("module ").append(MODULE_NAME).append(" {\n");
+        moduleInfo.append("    exports ").append(ANNOTATION_PACKAGE).append(";\n");
+        for (int p = 0; p < packages; p++) {
+            moduleInfo.append("    exports ").append(packageName(p)).append(";\n");
+        }
+        moduleInfo.append("}\n");
+        Files.createDirectories(sourceRoot);
+        write(sourceRoot.resolve("module-info.java"), moduleInfo);
+
+        for (int a = 0; a < annotations; a++) {
+            write(sourceFile(sourceRoot, ANNOTATION_PACKAGE, "Tag" + a), annotationType(a));
+        }
+        for (int p = 0; p < packages; p++) {
+            StringBuilder packageInfo = new StringBuilder();
+            javadoc(packageInfo, "", "Synthetic package " + p + ".");
+            packageInfo.append("package ").append(packageName(p)).append(";\n");
+            write(sourceFile(sourceRoot, packageName(p), "package-info"), packageInfo);
+            for (int t = 0; t < typesPerPackage; t++) {
+                write(sourceFile(sourceRoot, packageName(p), "T" + t), type(p, t));
+            }
+        }
+    }
+
+    private static String packageName(int p) {
+        return MODULE_NAME + ".p" + p;
+    }
+
+    private static Path sourceFile(Path sourceRoot, String packageName, String typeName) throws IOException {
+        Path directory = sourceRoot.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(directory);
+        return directory.resolve(typeName + ".java");
+    }
+
+    private static void write(Path file, CharSequence content) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.append(content);
+        }
+    }
+
+    private CharSequence annotationType(int a) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(ANNOTATION_PACKAGE).append(";\n\n");
+        javadoc(source, "", "Synthetic annotation " + a + ".");
+        source.append("@java.lang.annotation.Documented\n");
+        source.append("@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n");
+        source.append("public @interface Tag").append(a).append(" {\n");
+        source.append("    String value() default \"\";\n");
+        source.append("    int priority() default 0;\n");
+        source.append("}\n");
+        return source;
+    }
+
+    private CharSequence type(int p, int t) {
+        StringBuilder source = new StringBuilder(4096 + membersPerType * (512 + javadocLines * 100));
+        source.append("package ").append(packageName(p)).append(";\n\n");
+        javadoc(source, "", "Synthetic type " + t + " of package " + p + ".");
+        annotate(source, "", t);
+        String name = "T" + t;
+        switch (t % 4) {
+            case 0 -> {
+                source.append("public interface ").append(name).append("<K extends Comparable<K>, V> {\n");
+                methods(source, p, "    default ");
+            }
+            case 3 -> {
+                source.append("public enum ").append(name).append(" {\n");
+                source.append("    FIRST, SECOND, THIRD;\n\n");
+                fields(source, p);
+            }
+            default -> {
+                source.append("public class ").append(name).append("<K extends Comparable<K>, V> implements T")
+                        .append(t - t % 4).append("<K, V> {\n");
+                fields(source, p);
+                methods(source, p, "    public ");
+            }
+        }
+        source.append("}\n");
+        return source;
+    }
+
+    private void fields(StringBuilder source, int p) {
+        String referenced = packageName((p + 1) % packages) + ".T0<String, Integer>";
+        for (int f = 0; f < membersPerType / 2; f++) {
+            javadoc(source, "    ", "Synthetic field " + f + ".");
+            annotate(source, "    ", f);
+            source.append("    protected ").append(referenced).append(" field").append(f).append(";\n\n");
+        }
+    }
+
+    private void methods(StringBuilder source, int p, String prefix) {
+        String returnType = nestedType(genericDepth);
+        for (int m = 0; m < membersPerType; m++) {
+            javadoc(source, "    ", "Synthetic method " + m + ".",
+                    "@param key the key", "@param values the values", "@return the nested value");
+            annotate(source, "    ", m);
+            source.append(prefix).append(returnType).append(" method").append(m)
+                    .append("(K key, java.util.List<? extends V> values) {\n");
+            source.append("        return null;\n");
+            source.append("    }\n\n");
+        }
+    }
+
+    private static String nestedType(int depth) {
+        if (depth <= 0) {
+            return "V";
+        }
+        return (depth % 2 == 0 ? "java.util.Map<K, " : "java.util.List<") + nestedType(depth - 1) + ">";
+    }
+
+    private void annotate(StringBuilder source, String indent, int index) {
+        for (int a = 0; a < annotations; a++) {
+            source.append(indent).append('@').append(ANNOTATION_PACKAGE).append(".Tag").append(a)
+                    .append("(value = \"tag").append(index).append("\", priority = ").append(a).append(")\n");
+        }
+    }
+
+    private void javadoc(StringBuilder source, String indent, String summary, String... tags) {
+        source.append(indent).append("/**\n");
+        source.append(indent).append(" * ").append(summary).append('\n');
+        for (int l = 0; l < javadocLines; l++) {
+            source.append(indent).append(" * ").append(LOREM).append('\n');
+        }
+        for (String tag : tags) {
+            source.append(indent).append(" * ").append(tag).append('\n');
+        }
+        source.append(indent).append(" */\n");
+    }
+}
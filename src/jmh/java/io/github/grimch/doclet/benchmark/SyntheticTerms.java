@@ -0,0 +1,128 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import io.github.grimch.doclet.prolog.Atom;
+import io.github.grimch.doclet.prolog.DocComment;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologList;
+import io.github.grimch.doclet.prolog.Term;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds synthetic term trees shaped like the type facts produced by the doclet.
+ * <p>
+ * A type fact has a configurable number of members. Every method has a few parameters whose types are
+ * generic {@code declared_type} terms nested up to a configurable depth, carries modifiers and annotations,
+ * and has a doc comment. The generator is seeded, so the same parameters always produce the same tree.
+ */
+final class SyntheticTerms {
+    private static final String[] TYPE_NAMES = {
+            "java.lang.String", "java.util.List", "java.util.Map", "java.util.Optional",
+            "java.lang.Integer", "io.github.grimch.doclet.sample_module.types.basic.C1"
+    };
+    private static final String[] MODIFIERS = {"public", "protected", "private", "static", "final", "abstract"};
+
+    private final Random random;
+    private final int depth;
+
+    /**
+     * @param seed  The seed of the generator.
+     * @param depth The maximum nesting depth of generic type arguments.
+     */
+    SyntheticTerms(long seed, int depth) {
+        this.random = new Random(seed);
+        this.depth = depth;
+    }
+
+    /**
+     * Builds a {@code class} fact with the given number of members.
+     *
+     * @param name    The simple name of the class.
+     * @param members The number of methods and fields.
+     * @return The type fact.
+     */
+    Fact typeFact(String name, int members) {
+        List<Term> memberTerms = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            memberTerms.add(i % 4 == 0 ? field("field" + i) : method("method" + i));
+        }
+        return new Fact("class",
+                new Atom(name),
+                new Atom("io.github.grimch.doclet.benchmark.generated"),
+                modifiers(),
+                PrologList.EMPTY,
+                Atom.NULL,
+                new PrologList(List.of(new Fact("implements", new Atom("declared"), type(depth)))),
+                PrologList.EMPTY,
+                new PrologList(memberTerms),
+                annotations(),
+                DocComment.of("A synthetic class named " + name + " used by the benchmarks, it's got a doc comment.\\n"));
+    }
+
+    private Fact method(String name) {
+        List<Term> parameters = new ArrayList<>();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            parameters.add(new Fact("parameter", new Atom("arg" + i), type(depth), PrologList.EMPTY, PrologList.EMPTY));
+        }
+        return new Fact("method",
+                new Atom(name),
+                modifiers(),
+                PrologList.EMPTY,
+                type(depth),
+                new PrologList(parameters),
+                PrologList.EMPTY,
+                annotations(),
+                DocComment.of("Returns the caller's value.\\n@param arg0 the first argument\\n@return the value"));
+    }
+
+    private Fact field(String name) {
+        return new Fact("field", new Atom(name), modifiers(), type(depth), annotations(), DocComment.EMPTY);
+    }
+
+    private Term type(int remainingDepth) {
+        String typeName = TYPE_NAMES[random.nextInt(TYPE_NAMES.length)];
+        List<Term> arguments = new ArrayList<>();
+        if (remainingDepth > 1 && random.nextBoolean()) {
+            arguments.add(type(remainingDepth - 1));
+        }
+        return new Fact("declared_type", new Atom(typeName), new PrologList(arguments));
+    }
+
+    private PrologList modifiers() {
+        return new PrologList(List.of(
+                new Fact("modifier", new Atom(MODIFIERS[random.nextInt(3)])),
+                new Fact("modifier", new Atom(MODIFIERS[3 + random.nextInt(3)]))));
+    }
+
+    private PrologList annotations() {
+        return random.nextInt(4) == 0
+                ? new PrologList(List.of(new Fact("annotation", new Atom("java.lang.Deprecated"), PrologList.EMPTY)))
+                : PrologList.EMPTY;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import io.github.grimch.doclet.prolog.DocletPrologWriter;
+import io.github.grimch.doclet.prolog.PrologVisitor;
+import jdk.javadoc.doclet.Doclet;
+import jdk.javadoc.doclet.DocletEnvironment;
+import jdk.javadoc.doclet.Reporter;
+
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.tools.DocumentationTool;
+import javax.tools.ToolProvider;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Measures the heap retained by the facts built for a {@link SyntheticCodebase}.
+ * <p>
+ * This is a doclet, started by {@link #main(String[])} on a generated source tree. It traverses the included
+ * elements twice with a {@link PrologVisitor}: the first traversal lets javac complete its model, the second one
+ * feeds a writer whose executor keeps every scheduled file instead of writing it. The difference of the used heap
+ * after a full GC before and after the second traversal is the memory retained by the facts and the caches of the
+ * visitor.
+ * <p>
+ * Usage: {@code TermFootprint [-packages <n>] [-types <n>] [-members <n>] [-javadoc <n>]}, by default 100 packages
+ * of 100 types, i.e. 10k types, with 10 Javadoc lines per comment. Run with a fixed heap size and
+ * {@code -XX:+UseSerialGC} for repeatable figures.
+ */
+public class TermFootprint implements Doclet {
+    private Reporter reporter;
+
+    /**
+     * Generates a source tree and runs this doclet on it.
+     *
+     * @param args The command line arguments, see the class documentation.
+     * @throws Exception if generating the sources or cleaning up fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int packages = 100;
+        int types = 100;
+        int members = 10;
+        int javadoc = 10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-packages" -> packages = Integer.parseInt(args[++i]);
+                case "-types" -> types = Integer.parseInt(args[++i]);
+                case "-members" -> members = Integer.parseInt(args[++i]);
+                case "-javadoc" -> javadoc = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        Path root = Files.createTempDirectory("logidoclet-footprint");
+        try {
+            new SyntheticCodebase(packages, types, members, 4, 3, javadoc).generate(root);
+            DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+            int exitCode = tool.run(null, null, null,
+                    "-doclet", TermFootprint.class.getName(),
+                    "--source-path", root.toString(),
+                    "-subpackages", SyntheticCodebase.MODULE_NAME);
+            if (exitCode != 0) {
+                System.err.println("Javadoc failed with exit code " + exitCode);
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void init(Locale locale, Reporter reporter) {
+        this.reporter = reporter;
+    }
+
+    @Override
+    public String getName() {
+        return "TermFootprint";
+    }
+
+    @Override
+    public Set<? extends Option> getSupportedOptions() {
+        return Set.of();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public boolean run(DocletEnvironment environment) {
+        List<Element> elements = environment.getIncludedElements().stream()
+                .sorted(Comparator.comparingInt(element -> element.getKind() == ElementKind.MODULE ? 0
+                        : element.getKind() == ElementKind.PACKAGE ? 1 : 2))
+                .map(Element.class::cast)
+                .toList();
+        long types = elements.stream().filter(element -> element.getKind().isClass() || element.getKind().isInterface()).count();
+        Path unused = Path.of("unused");
+
+        // Complete the javac model, discarding all facts
+        traverse(environment, elements, DocletPrologWriter.builder(unused).executor(task -> { }).build());
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeapAfterGc(memory);
+        List<Runnable> retained = new ArrayList<>();
+        PrologVisitor visitor = traverse(environment, elements, DocletPrologWriter.builder(unused).executor(retained::add).build());
+        long after = usedHeapAfterGc(memory);
+
+        long bytes = after - before;
+        System.out.printf("%d types, %d files retained: %,d bytes, %,d bytes per 10k types%n",
+                types, retained.size(), bytes, bytes * 10_000 / Math.max(1, types));
+        // Keep the facts reachable until the measurement is done
+        return visitor != null && !retained.isEmpty();
+    }
+
+    private PrologVisitor traverse(DocletEnvironment environment, List<Element> elements, DocletPrologWriter writer) {
+        PrologVisitor visitor = new PrologVisitor(List.of(writer), environment, reporter);
+        elements.forEach(element -> element.accept(visitor, null));
+        return visitor;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmark for the compact rendering of {@link Fact}s and {@link PrologList}s.
+ * <p>
+ * The rendered tree is a synthetic type fact (see {@link SyntheticTerms}) with a configurable number of
+ * members and nesting depth of generic types.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermRenderingBenchmark {
+    /**
+     * The number of members of the rendered type fact.
+     */
+    @Param({"10", "100", "2000"})
+    public int members;
+
+    /**
+     * The maximum nesting depth of generic type arguments.
+     */
+    @Param({"1", "4"})
+    public int depth;
+
+    private Fact typeFact;
+    private PrologList memberList;
+    private final StringBuilder out = new StringBuilder(1024 * 1024);
+
+    @Setup
+    public void setUp() {
+        typeFact = new SyntheticTerms(42, depth).typeFact("Synthetic", members);
+        memberList = (PrologList) typeFact.getArgument(7);
+    }
+
+    @Benchmark
+    public int appendFact() throws IOException {
+        out.setLength(0);
+        typeFact.appendTo(out);
+        return out.length();
+    }
+
+    @Benchmark
+    public String factToString() {
+        return typeFact.toString();
+    }
+
+    @Benchmark
+    public int appendList() throws IOException {
+        out.setLength(0);
+        memberList.appendTo(out);
+        return out.length();
+    }
+}
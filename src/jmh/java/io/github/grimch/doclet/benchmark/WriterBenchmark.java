@@ -0,0 +1,136 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.benchmark;
+
+import io.github.grimch.doclet.prolog.DocletPrologWriter;
+import io.github.grimch.doclet.prolog.Fact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput benchmark for {@link DocletPrologWriter}: each invocation writes one type file per synthetic
+ * type fact into a temporary directory, spread over several packages, and completes the writer.
+ * <p>
+ * Files are written inline on the benchmark thread, so the score is the rendering and I/O cost of the writer
+ * itself. The {@code outputMode} parameter selects the full output, or the minimal output which also strips the
+ * doc comments, and {@code directEncoding} compares the direct UTF-8 encoding into a {@link java.nio.channels.FileChannel}
+ * with the {@link java.io.Writer} based path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriterBenchmark {
+    private static final int PACKAGES = 10;
+
+    /**
+     * The number of type files written per invocation.
+     */
+    @Param({"100"})
+    public int files;
+
+    /**
+     * The number of members of every type fact.
+     */
+    @Param({"10", "200"})
+    public int members;
+
+    /**
+     * The maximum nesting depth of generic type arguments.
+     */
+    @Param({"3"})
+    public int depth;
+
+    /**
+     * Whether to use the compact or the pretty-printed format.
+     */
+    @Param({"false", "true"})
+    public boolean prettyPrint;
+
+    /**
+     * "full" or "minimal" output.
+     */
+    @Param({"full", "minimal"})
+    public String outputMode;
+
+    /**
+     * Whether facts are encoded directly into a buffer written through a file channel.
+     */
+    @Param({"false", "true"})
+    public boolean directEncoding;
+
+    private Fact[] typeFacts;
+    private Path outputDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SyntheticTerms terms = new SyntheticTerms(42, depth);
+        typeFacts = new Fact[files];
+        for (int i = 0; i < files; i++) {
+            typeFacts[i] = terms.typeFact("Synthetic" + i, members);
+        }
+        outputDirectory = Files.createTempDirectory("logidoclet-writer-benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(outputDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public DocletPrologWriter writeTypeFiles() throws IOException {
+        DocletPrologWriter writer = DocletPrologWriter.builder(outputDirectory)
+                .prettyPrint(prettyPrint)
+                .outputCommentary(outputMode.equals("full"))
+                .directEncoding(directEncoding)
+                .build();
+        for (int i = 0; i < typeFacts.length; i++) {
+            writer.writeTypeFile("io.github.grimch.doclet.benchmark.generated" + (i % PACKAGES), "Synthetic" + i, typeFacts[i]);
+        }
+        writer.finish();
+        return writer;
+    }
+}
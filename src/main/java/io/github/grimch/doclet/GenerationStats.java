@@ -0,0 +1,160 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet;
+
+import io.github.grimch.doclet.prolog.Atom;
+import io.github.grimch.doclet.prolog.FactSink;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologInteger;
+import io.github.grimch.doclet.prolog.PrologVisitor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the timings and counters of a generation run, reports them as a single line and writes them as
+ * Prolog facts to {@value #FILE_NAME}.
+ * <p>
+ * The phases of the traversing thread are measured in wall-clock time and add up to the total: setting up the
+ * output, visiting the javac model, building the terms, scheduling the files on the writers, building and scheduling
+ * the reverse index files, waiting for the writer pool and finishing the writers. The rendering and writing phases
+ * are not part of that sum: they are measured by the writers and summed over all threads, so they overlap with the
+ * scheduling and waiting phases and may even exceed the total.
+ */
+class GenerationStats {
+    /**
+     * The name of the statistics file, placed in the root output directory.
+     */
+    static final String FILE_NAME = "generation_stats.pl";
+
+    private final long start = System.nanoTime();
+    private long end;
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+    private final List<Fact> outputs = new ArrayList<>();
+
+    /**
+     * Adds time spent in a phase.
+     *
+     * @param phase The name of the phase, a lower case Prolog atom.
+     * @param nanos The time spent in nanoseconds.
+     */
+    void addPhase(String phase, long nanos) {
+        phaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Adds the traversal of the javac model, split into visiting, term building and scheduling by the times
+     * recorded by the visitor.
+     *
+     * @param visitor        The visitor that performed the traversal.
+     * @param traversalNanos The wall-clock time of the traversal in nanoseconds.
+     */
+    void addTraversal(PrologVisitor visitor, long traversalNanos) {
+        addPhase("visiting", traversalNanos - visitor.getTermBuildingNanos() - visitor.getSchedulingNanos());
+        addPhase("term_building", visitor.getTermBuildingNanos());
+        addPhase("scheduling", visitor.getSchedulingNanos());
+        counters.put("elements_visited", visitor.getVisitedElementCount());
+        counters.put("facts_built", visitor.getFactCount());
+        counters.put("atom_pool_hits", visitor.getAtomPool().getHitCount());
+        counters.put("atom_pool_misses", visitor.getAtomPool().getMissCount());
+    }
+
+    /**
+     * Adds the figures of a finished writer.
+     *
+     * @param writer The writer.
+     */
+    void addWriter(FactSink writer) {
+        addPhase("rendering", writer.getRenderNanos());
+        addPhase("writing", writer.getWriteNanos());
+        counters.merge("files_written", (long) writer.getWrittenFileCount(), Long::sum);
+        counters.merge("bytes_written", writer.getWrittenByteCount(), Long::sum);
+        counters.merge("directory_creations_saved", writer.getSavedDirectoryCreationCount(), Long::sum);
+        outputs.add(new Fact("generation_output",
+                new Atom(writer.getOutputPath().getFileName().toString()),
+                new PrologInteger(writer.getWrittenFileCount()),
+                new PrologInteger(writer.getSkippedFileCount()),
+                new PrologInteger(writer.getWrittenByteCount())));
+    }
+
+    /**
+     * Stops the total run time. Must be called before the statistics are reported.
+     */
+    void stop() {
+        end = System.nanoTime();
+    }
+
+    /**
+     * Returns a one-line summary of the phases and counters.
+     *
+     * @return The summary, e.g. {@code Generation statistics: setup 2 ms, visiting 40 ms, ...; 120 elements visited, ...}.
+     */
+    String summary() {
+        StringBuilder summary = new StringBuilder("Generation statistics: ");
+        phaseNanos.forEach((phase, nanos) ->
+                summary.append(phase.replace('_', ' ')).append(' ').append(millis(nanos)).append(" ms, "));
+        summary.append("total ").append(millis(totalNanos())).append(" ms");
+        String separator = "; ";
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            summary.append(separator).append(counter.getValue()).append(' ').append(counter.getKey().replace('_', ' '));
+            separator = ", ";
+        }
+        return summary.append('.').toString();
+    }
+
+    /**
+     * Writes the statistics as Prolog facts:
+     * {@code generation_phase(Phase, Millis)}, {@code generation_counter(Name, Value)} and
+     * {@code generation_output(Directory, FilesWritten, FilesSkipped, BytesWritten)}.
+     *
+     * @param outputDirectory The root output directory.
+     * @throws IOException If the file cannot be written.
+     */
+    void write(Path outputDirectory) throws IOException {
+        List<String> lines = new ArrayList<>();
+        phaseNanos.forEach((phase, nanos) -> lines.add(
+                new Fact("generation_phase", new Atom(phase), new PrologInteger(millis(nanos))) + "."));
+        lines.add(new Fact("generation_phase", new Atom("total"), new PrologInteger(millis(totalNanos()))) + ".");
+        counters.forEach((name, value) -> lines.add(
+                new Fact("generation_counter", new Atom(name), new PrologInteger(value)) + "."));
+        outputs.forEach(output -> lines.add(output + "."));
+        Files.write(outputDirectory.resolve(FILE_NAME), lines, StandardCharsets.UTF_8);
+    }
+
+    private long totalNanos() {
+        return end - start;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -23,14 +23,23 @@
  */
 package io.github.grimch.doclet;
 
+import io.github.grimch.doclet.prolog.BinaryFactStore;
+import io.github.grimch.doclet.prolog.BinaryFactStoreWriter;
 import io.github.grimch.doclet.prolog.DocletPrologWriter;
+import io.github.grimch.doclet.prolog.FactSink;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologArchive;
 import io.github.grimch.doclet.prolog.PrologVisitor;
+import io.github.grimch.doclet.prolog.ReverseIndex;
+import io.github.grimch.doclet.prolog.TokenCounter;
+import io.github.grimch.doclet.prolog.TokenReport;
 import jdk.javadoc.doclet.Doclet;
 import jdk.javadoc.doclet.DocletEnvironment;
 import jdk.javadoc.doclet.Reporter;
 
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.tools.Diagnostic;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -38,9 +47,19 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * A custom Javadoc Doclet that generates a machine-readable Prolog representation of a Java codebase.
@@ -67,12 +86,18 @@ import java.util.Set;
  * @see DocletPrologWriter
  */
 public class LogiDoclet implements Doclet {
-    record DocletProcessor(PrologVisitor visitor, DocletPrologWriter writer) {};
-
     private Reporter reporter;
     private Path outputDirectory;
     private String outputMode = "both";
     private boolean prettyPrint = false;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean incremental = false;
+    private boolean directEncoding = true;
+    private String archiveName;
+    private boolean bundlePackages = false;
+    private String binaryStoreName;
+    private boolean tokenReport = false;
+    private Path tokenVocabulary;
 
     /**
      * Initializes the doclet with the given locale and reporter.
@@ -101,7 +126,14 @@ public class LogiDoclet implements Doclet {
      * Returns the set of supported options for this doclet.
      * This doclet supports the standard {@code -d} option for specifying the output directory
      * and a custom {@code -outputMode} flag to control the output mode (minimal/full/both.
-     * Additionally you can provide {@code -prettyPrint} flag to get output well formatted instead of single line.
+     * Additionally you can provide {@code -prettyPrint} flag to get output well formatted instead of single line,
+     * and {@code -threads} to set the number of threads rendering and writing the output files.
+     * With {@code -incremental} only changed files are written and the number of written, skipped and deleted
+     * files is reported. {@code -directEncoding false} writes the files through a {@link java.io.Writer} instead of
+     * encoding them directly into buffers written through file channels. With {@code -archive} the full and minimal
+     * output is written into a single zip or jar archive in the output directory instead of individual files.
+     * {@code -bundlePackages} writes the types of each package into a single file with an offset index.
+     * {@code -binaryStore} additionally writes all type facts into a memory-mappable {@link BinaryFactStore}.
      *
      * @return A set of supported {@link Doclet.Option}s.
      */
@@ -213,6 +245,293 @@ public class LogiDoclet implements Doclet {
                     }
                 },
 
+                new Option() { // Option for the number of rendering and writing threads
+                    @Override
+                    public int getArgumentCount() { return 1; }
+
+                    @Override
+                    public String getDescription() {
+                        return "Number of threads rendering and writing Prolog files (default: number of processors).";
+                    }
+
+                    @Override
+                    public Option.Kind getKind() {
+                        return Option.Kind.STANDARD;
+                    }
+
+                    @Override
+                    public java.util.List<String> getNames() {
+                        return java.util.List.of("-threads");
+                    }
+
+                    @Override
+                    public String getParameters() {
+                        return "<count>";
+                    }
+
+                    @Override
+                    public boolean process(String option, java.util.List<String> arguments) {
+                        if (arguments != null && arguments.size() == 1) {
+                            try {
+                                threads = Integer.parseInt(arguments.get(0));
+                                if (threads > 0) {
+                                    return true;
+                                }
+                            } catch (NumberFormatException e) {
+                                // reported below
+                            }
+                        }
+                        reporter.print(Diagnostic.Kind.ERROR, "Option -threads requires a positive number.");
+                        return false;
+                    }
+                },
+
+                new Option() { // Option for incremental regeneration
+                    @Override
+                    public int getArgumentCount() { return 1; }
+
+                    @Override
+                    public String getDescription() {
+                        return "Only write changed files, remove outputs of deleted types and report the file counts.";
+                    }
+
+                    @Override
+                    public Option.Kind getKind() {
+                        return Option.Kind.STANDARD;
+                    }
+
+                    @Override
+                    public java.util.List<String> getNames() {
+                        return java.util.List.of("-incremental");
+                    }
+
+                    @Override
+                    public String getParameters() {
+                        return "<boolean>";
+                    }
+
+                    @Override
+                    public boolean process(String option, java.util.List<String> arguments) {
+                        if (arguments != null && arguments.size() == 1) {
+                            incremental = Boolean.valueOf(arguments.get(0));
+                            return true;
+                        }
+                        reporter.print(Diagnostic.Kind.ERROR, "Option -incremental requires a boolean argument.");
+                        return false;
+                    }
+                },
+
+                new Option() { // Option for the output encoding path
+                    @Override
+                    public int getArgumentCount() { return 1; }
+
+                    @Override
+                    public String getDescription() {
+                        return "Encode facts directly into buffers written through file channels (default true).";
+                    }
+
+                    @Override
+                    public Option.Kind getKind() {
+                        return Option.Kind.STANDARD;
+                    }
+
+                    @Override
+                    public java.util.List<String> getNames() {
+                        return java.util.List.of("-directEncoding");
+                    }
+
+                    @Override
+                    public String getParameters() {
+                        return "<boolean>";
+                    }
+
+                    @Override
+                    public boolean process(String option, java.util.List<String> arguments) {
+                        if (arguments != null && arguments.size() == 1) {
+                            directEncoding = Boolean.valueOf(arguments.get(0));
+                            return true;
+                        }
+                        reporter.print(Diagnostic.Kind.ERROR, "Option -directEncoding requires a boolean argument.");
+                        return false;
+                    }
+                },
+
+                new Option() { // Option for writing a single archive
+                    @Override
+                    public int getArgumentCount() { return 1; }
+
+                    @Override
+                    public String getDescription() {
+                        return "Write the output into this zip or jar archive in the output directory instead of individual files.";
+                    }
+
+                    @Override
+                    public Option.Kind getKind() {
+                        return Option.Kind.STANDARD;
+                    }
+
+                    @Override
+                    public java.util.List<String> getNames() {
+                        return java.util.List.of("-archive");
+                    }
+
+                    @Override
+                    public String getParameters() {
+                        return "<file>";
+                    }
+
+                    @Override
+                    public boolean process(String option, java.util.List<String> arguments) {
+                        if (arguments != null && arguments.size() == 1 && !arguments.get(0).isBlank()) {
+                            archiveName = arguments.get(0);
+                            return true;
+                        }
+                        reporter.print(Diagnostic.Kind.ERROR, "Option -archive requires a file name.");
+                        return false;
+                    }
+                },
+
+                new Option() { // Option for one file per package
+                    @Override
+                    public int getArgumentCount() { return 1; }
+
+                    @Override
+                    public String getDescription() {
+                        return "Write the types of each package into a single bundle file with an offset index (default false).";
+                    }
+
+                    @Override
+                    public Option.Kind getKind() {
+                        return Option.Kind.STANDARD;
+                    }
+
+                    @Override
+                    public java.util.List<String> getNames() {
+                        return java.util.List.of("-bundlePackages");
+                    }
+
+                    @Override
+                    public String getParameters() {
+                        return "<boolean>";
+                    }
+
+                    @Override
+                    public boolean process(String option, java.util.List<String> arguments) {
+                        if (arguments != null && arguments.size() == 1) {
+                            bundlePackages = Boolean.valueOf(arguments.get(0));
+                            return true;
+                        }
+                        reporter.print(Diagnostic.Kind.ERROR, "Option -bundlePackages requires a boolean argument.");
+                        return false;
+                    }
+                },
+
+                new Option() { // Option for the binary fact store
+                    @Override
+                    public int getArgumentCount() { return 1; }
+
+                    @Override
+                    public String getDescription() {
+                        return "Also write all type facts into this memory-mappable binary store in the output directory.";
+                    }
+
+                    @Override
+                    public Option.Kind getKind() {
+                        return Option.Kind.STANDARD;
+                    }
+
+                    @Override
+                    public java.util.List<String> getNames() {
+                        return java.util.List.of("-binaryStore");
+                    }
+
+                    @Override
+                    public String getParameters() {
+                        return "<file>";
+                    }
+
+                    @Override
+                    public boolean process(String option, java.util.List<String> arguments) {
+                        if (arguments != null && arguments.size() == 1 && !arguments.get(0).isBlank()) {
+                            binaryStoreName = arguments.get(0);
+                            return true;
+                        }
+                        reporter.print(Diagnostic.Kind.ERROR, "Option -binaryStore requires a file name.");
+                        return false;
+                    }
+                },
+
+                new Option() { // Option for the token report
+                    @Override
+                    public int getArgumentCount() { return 1; }
+
+                    @Override
+                    public String getDescription() {
+                        return "Count the tokens of every file written and report them per package and type in token_report.pl (default false).";
+                    }
+
+                    @Override
+                    public Option.Kind getKind() {
+                        return Option.Kind.STANDARD;
+                    }
+
+                    @Override
+                    public java.util.List<String> getNames() {
+                        return java.util.List.of("-tokenReport");
+                    }
+
+                    @Override
+                    public String getParameters() {
+                        return "<boolean>";
+                    }
+
+                    @Override
+                    public boolean process(String option, java.util.List<String> arguments) {
+                        if (arguments != null && arguments.size() == 1) {
+                            tokenReport = Boolean.valueOf(arguments.get(0));
+                            return true;
+                        }
+                        reporter.print(Diagnostic.Kind.ERROR, "Option -tokenReport requires a boolean argument.");
+                        return false;
+                    }
+                },
+
+                new Option() { // Option for the vocabulary of the token counter
+                    @Override
+                    public int getArgumentCount() { return 1; }
+
+                    @Override
+                    public String getDescription() {
+                        return "Count tokens with this BPE vocabulary file, one token per line or in tiktoken format; implies -tokenReport true.";
+                    }
+
+                    @Override
+                    public Option.Kind getKind() {
+                        return Option.Kind.STANDARD;
+                    }
+
+                    @Override
+                    public java.util.List<String> getNames() {
+                        return java.util.List.of("-tokenVocabulary");
+                    }
+
+                    @Override
+                    public String getParameters() {
+                        return "<file>";
+                    }
+
+                    @Override
+                    public boolean process(String option, java.util.List<String> arguments) {
+                        if (arguments != null && arguments.size() == 1 && !arguments.get(0).isBlank()) {
+                            tokenVocabulary = Paths.get(arguments.get(0));
+                            tokenReport = true;
+                            return true;
+                        }
+                        reporter.print(Diagnostic.Kind.ERROR, "Option -tokenVocabulary requires a file name.");
+                        return false;
+                    }
+                },
+
                 new Option() { // -no-fonts option to please Gradle
                     @Override
                     public int getArgumentCount() { return 0; }
@@ -256,10 +575,17 @@ public class LogiDoclet implements Doclet {
      *     <li>Validates that an output directory has been specified.</li>
      *     <li>Creates the output directory structure.</li>
      *     <li>Copies necessary static resources (e.g., Prolog metastructure files) to the output directory.</li>
-     *     <li>Initializes the {@link PrologVisitor} and {@link DocletPrologWriter}.</li>
-     *     <li>Iterates over the elements included in the javadoc run (modules, packages, types).</li>
-     *     <li>Delegates the processing of each element to the {@link PrologVisitor}.</li>
+     *     <li>Initializes a {@link DocletPrologWriter} per output mode, optionally sharing a {@link PrologArchive},
+     *     optionally a {@link BinaryFactStoreWriter}, and a single {@link PrologVisitor} feeding them.</li>
+     *     <li>Iterates over the elements included in the javadoc run top-down (modules, packages, types).</li>
+     *     <li>Delegates the processing of each element to the {@link PrologVisitor}, which builds its facts once
+     *     for all writers.</li>
      *     <li>Writes the final index file containing a summary of all generated Prolog files.</li>
+     *     <li>Writes the reverse index files of subtypes, implementors, annotation usages and nested types collected
+     *     during the traversal.</li>
+     *     <li>Waits for the writer pool to render and write all scheduled files.</li>
+     *     <li>Reports the time spent per phase and the number of elements, facts, files and bytes processed,
+     *     and writes them to {@code generation_stats.pl}.</li>
      * </ol>
      *
      * @param environment The environment provided by the javadoc tool, containing all the information
@@ -272,6 +598,8 @@ public class LogiDoclet implements Doclet {
             reporter.print(Diagnostic.Kind.ERROR, "Output directory not specified. Use -d option.");
             return false;
         }
+        GenerationStats stats = new GenerationStats();
+        long phaseStart = System.nanoTime();
 
         // Ensure the base output directory exists
         try {
@@ -317,38 +645,230 @@ public class LogiDoclet implements Doclet {
             return false;
         }
 
-        List<DocletProcessor> docletProcessors = new ArrayList<>();
+        // Rendering and file I/O run on a bounded pool, the javac model is only traversed on this thread.
+        // With a single thread everything runs inline.
+        ExecutorService writerPool = threads > 1 ? createWriterPool(threads) : null;
+        Executor executor = writerPool != null ? writerPool : Runnable::run;
+        List<DocletPrologWriter> writers = new ArrayList<>();
+        PrologArchive archive = null;
+        if (archiveName != null) {
+            if (incremental) {
+                reporter.print(Diagnostic.Kind.WARNING, "Option -incremental is ignored when writing an archive.");
+            }
+            try {
+                archive = new PrologArchive(outputDirectory.resolve(archiveName), outputDirectory);
+            } catch (IOException e) {
+                reporter.print(Diagnostic.Kind.ERROR, "Error creating archive: " + e.getMessage());
+                e.printStackTrace();
+                return false;
+            }
+        }
+
+        TokenCounter tokenCounter = null;
+        if (tokenReport) {
+            try {
+                tokenCounter = tokenVocabulary != null ? TokenCounter.load(tokenVocabulary) : new TokenCounter();
+            } catch (IOException e) {
+                reporter.print(Diagnostic.Kind.ERROR, "Error reading token vocabulary: " + e.getMessage());
+                closeQuietly(archive);
+                return false;
+            }
+        }
 
         if (outputMode.equals("full") || outputMode.equals("both")) {
-            DocletPrologWriter writer = new DocletPrologWriter(outputDirectory.resolve("full"), prettyPrint);
-            PrologVisitor visitor = new PrologVisitor(writer, environment, reporter, true);
-            docletProcessors.add(new DocletProcessor(visitor, writer));
+            writers.add(writerBuilder(outputDirectory.resolve("full"), executor, archive, tokenCounter).outputCommentary(true).build());
         }
         if (outputMode.equals("minimal") || outputMode.equals("both")) {
-            DocletPrologWriter writer = new DocletPrologWriter(outputDirectory.resolve("minimal"), prettyPrint);
-            PrologVisitor visitor = new PrologVisitor(writer, environment, reporter, false);
-            docletProcessors.add(new DocletProcessor(visitor, writer));
+            writers.add(writerBuilder(outputDirectory.resolve("minimal"), executor, archive, tokenCounter).outputCommentary(false).build());
+        }
+        List<FactSink> sinks = new ArrayList<>(writers);
+        BinaryFactStoreWriter storeWriter = null;
+        if (binaryStoreName != null) {
+            // The store holds the facts with comments unless only the minimal output was asked for
+            storeWriter = new BinaryFactStoreWriter(outputDirectory.resolve(binaryStoreName), !outputMode.equals("minimal"));
+            sinks.add(storeWriter);
         }
+        // A single traversal builds every fact once and feeds all sinks
+        PrologVisitor visitor = new PrologVisitor(sinks, environment, reporter);
+        stats.addPhase("setup", System.nanoTime() - phaseStart);
 
         reporter.print(Diagnostic.Kind.NOTE, "Generating Prolog facts to: " + outputDirectory.toAbsolutePath());
 
         try {
-            for (Element element : environment.getIncludedElements()) {
-                docletProcessors.stream().forEach(docletProcessor -> element.accept(docletProcessor.visitor(), null));
+            phaseStart = System.nanoTime();
+            for (Element element : traversalPlan(environment.getIncludedElements())) {
+                element.accept(visitor, null);
+            }
+            stats.addTraversal(visitor, System.nanoTime() - phaseStart);
+            phaseStart = System.nanoTime();
+            for (FactSink writer : sinks) {
+                if (visitor.hasModulesDefined()) {
+                    writer.writeIndexFile(visitor.getModuleIndex(), "module_index");
+                }
+                writer.writeIndexFile(visitor.getPackageIndex(), "package_index");
             }
-            for (DocletProcessor docletProcessor : docletProcessors) {
-                if (docletProcessor.visitor().hasModulesDefined()) {
-                    docletProcessor.writer().writeIndexFile(docletProcessor.visitor().getModuleIndex(), "module_index");
+            stats.addPhase("scheduling", System.nanoTime() - phaseStart);
+            phaseStart = System.nanoTime();
+            ReverseIndex reverseIndex = visitor.getReverseIndex();
+            List<Fact> reverseIndexFacts = List.of(reverseIndex.getSubtypeIndex(), reverseIndex.getImplementorIndex(),
+                    reverseIndex.getAnnotationUsageIndex(), reverseIndex.getNestedTypeIndex());
+            for (FactSink writer : sinks) {
+                for (Fact indexFact : reverseIndexFacts) {
+                    writer.writeIndexFile(indexFact, indexFact.getPredicate());
                 }
-                docletProcessor.writer().writeIndexFile(docletProcessor.visitor().getPackageIndex(), "package_index");
             }
+            Map<String, Fact> hierarchyFacts = visitor.buildPackageHierarchies();
+            for (FactSink writer : sinks) {
+                hierarchyFacts.forEach(writer::writePackageHierarchyFile);
+            }
+            stats.addPhase("indexing", System.nanoTime() - phaseStart);
+            phaseStart = System.nanoTime();
+            awaitTermination(writerPool);
+            stats.addPhase("waiting", System.nanoTime() - phaseStart);
+            phaseStart = System.nanoTime();
+            for (DocletPrologWriter writer : writers) {
+                writer.finish();
+                if (writer.isIncremental()) {
+                    reporter.print(Diagnostic.Kind.NOTE, String.format("%s: %d files written, %d unchanged files skipped, %d stale files deleted.",
+                            writer.getOutputDirectory(), writer.getWrittenFileCount(), writer.getSkippedFileCount(), writer.getDeletedFileCount()));
+                } else {
+                    reporter.print(Diagnostic.Kind.NOTE, String.format("%s: %d files written.",
+                            writer.getOutputDirectory(), writer.getWrittenFileCount()));
+                }
+                TokenReport report = writer.getTokenReport();
+                if (report != null) {
+                    reporter.print(Diagnostic.Kind.NOTE, String.format("%s: %d tokens, heaviest types: %s.",
+                            writer.getOutputDirectory(), report.getTotalTokens(), report.getHeaviestTypes(5).entrySet().stream()
+                                    .map(type -> type.getKey() + " " + type.getValue())
+                                    .collect(Collectors.joining(", "))));
+                }
+                if (writer.getDuplicateFileCount() > 0) {
+                    reporter.print(Diagnostic.Kind.WARNING, String.format("%s: %d files were written more than once.",
+                            writer.getOutputDirectory(), writer.getDuplicateFileCount()));
+                }
+            }
+            if (storeWriter != null) {
+                storeWriter.finish();
+                reporter.print(Diagnostic.Kind.NOTE, String.format("%s: %d types stored.",
+                        storeWriter.getOutputPath(), storeWriter.getTypeCount()));
+                if (storeWriter.getDuplicateFileCount() > 0) {
+                    reporter.print(Diagnostic.Kind.WARNING, String.format("%s: %d types were stored more than once.",
+                            storeWriter.getOutputPath(), storeWriter.getDuplicateFileCount()));
+                }
+            }
+            if (archive != null) {
+                archive.close();
+                reporter.print(Diagnostic.Kind.NOTE, String.format("%s: %d entries written.",
+                        outputDirectory.resolve(archiveName), archive.getEntryCount()));
+            }
+            stats.addPhase("finishing", System.nanoTime() - phaseStart);
+            sinks.forEach(stats::addWriter);
+            stats.stop();
+            stats.write(outputDirectory);
+            reporter.print(Diagnostic.Kind.NOTE, stats.summary());
             reporter.print(Diagnostic.Kind.NOTE, "Prolog fact generation completed successfully.");
             return true;
         } catch (IOException e) {
             reporter.print(Diagnostic.Kind.ERROR, "Error writing Prolog facts: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            if (writerPool != null) {
+                writerPool.shutdownNow();
+            }
+            closeQuietly(archive);
+        }
+    }
+
+    /**
+     * Configures a writer with the options shared by the full and the minimal output.
+     *
+     * @param directory    The output directory of the writer.
+     * @param executor     The executor rendering and writing the files.
+     * @param archive      The archive receiving the files, or {@code null}.
+     * @param tokenCounter The counter of the tokens of every file, or {@code null}.
+     * @return The builder of the writer.
+     */
+    private DocletPrologWriter.Builder writerBuilder(Path directory, Executor executor, PrologArchive archive, TokenCounter tokenCounter) {
+        return DocletPrologWriter.builder(directory)
+                .prettyPrint(prettyPrint)
+                .executor(executor)
+                .incremental(incremental)
+                .directEncoding(directEncoding)
+                .archive(archive)
+                .bundlePackages(bundlePackages)
+                .tokenCounter(tokenCounter);
+    }
+
+    /**
+     * Closes the archive after a failed run, so that its file handle is released. The archive is incomplete anyway.
+     *
+     * @param archive The archive, or {@code null}.
+     */
+    private void closeQuietly(PrologArchive archive) {
+        if (archive == null) {
+            return;
+        }
+        try {
+            archive.close();
+        } catch (IOException e) {
+            reporter.print(Diagnostic.Kind.WARNING, "Error closing archive: " + e.getMessage());
         }
     }
-}
 
+    /**
+     * Orders the included elements so that they are visited top-down: modules first, then packages, which
+     * visit their types, and finally the remaining types. Types already reached through their package or
+     * enclosing type are then skipped by the visitor, so every element is converted exactly once.
+     *
+     * @param includedElements The elements included in the javadoc run.
+     * @return The included elements in traversal order.
+     */
+    private static List<Element> traversalPlan(Set<? extends Element> includedElements) {
+        return includedElements.stream()
+                .sorted(Comparator.comparingInt(element -> element.getKind() == ElementKind.MODULE ? 0
+                        : element.getKind() == ElementKind.PACKAGE ? 1 : 2))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates the pool rendering and writing the Prolog files.
+     * <p>
+     * Its queue is bounded: when the workers fall behind, the traversing thread renders files itself instead of
+     * queueing up more fact trees in memory.
+     *
+     * @param threads The number of worker threads.
+     * @return A new fixed-size pool of daemon threads.
+     */
+    private static ExecutorService createWriterPool(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "logidoclet-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 16), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Waits until all files scheduled on the pool have been written.
+     *
+     * @param writerPool The pool to shut down, or {@code null} if files are written inline.
+     * @throws IOException If the current thread is interrupted while waiting.
+     */
+    private static void awaitTermination(ExecutorService writerPool) throws IOException {
+        if (writerPool == null) {
+            return;
+        }
+        writerPool.shutdown();
+        try {
+            while (!writerPool.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting, large code bases may take a while
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Prolog files to be written", e);
+        }
+    }
+}
@@ -23,6 +23,8 @@
  */
 package io.github.grimch.doclet.prolog;
 
+import java.io.IOException;
+
 /**
  * Represents a Prolog atom, a fundamental data type in Prolog for representing constant values.
  * <p>
@@ -36,47 +38,134 @@ package io.github.grimch.doclet.prolog;
  * @see Fact
  */
 public class Atom extends Term {
+    /**
+     * Character classes of the ASCII range, indexed by character. Any character outside this range
+     * forces an atom to be quoted.
+     */
+    private static final byte[] CHAR_CLASS = new byte[128];
+    private static final byte OTHER = 0;
+    private static final byte LOWER = 1;
+    private static final byte ALPHANUMERIC = 2;
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            CHAR_CLASS[c] = LOWER;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CHAR_CLASS[c] = ALPHANUMERIC;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            CHAR_CLASS[c] = ALPHANUMERIC;
+        }
+        CHAR_CLASS['_'] = ALPHANUMERIC;
+    }
+
+    /**
+     * The atom {@code 'null'}, used for absent values such as the superclass of an interface. Declared after the
+     * character table, which it needs for its classification.
+     */
+    public static final Atom NULL = new Atom("null");
+
+    /**
+     * The escaped value, i.e. with single quotes doubled. Identical to the original value, without any
+     * copy, if it contains no single quote.
+     */
     private final String value;
+    private final boolean quoted;
 
     /**
      * Constructs a new Atom with the specified string value.
-     * The constructor automatically escapes any single quotes within the value
-     * to ensure it is a valid Prolog string literal when quoted.
+     * The constructor classifies the value once, deciding if it has to be quoted, and escapes any single
+     * quotes within the value to ensure it is a valid Prolog string literal when quoted.
      *
      * @param value The string value of the atom.
      */
     public Atom(String value) {
+        this.quoted = requiresQuotes(value);
         // Escape single quotes for Prolog atom representation
-        this.value = value.replace("'", "''");
+        this.value = quoted ? escape(value) : value;
+    }
+
+    /**
+     * Returns the value of this atom, as passed to the constructor.
+     *
+     * @return The unescaped value.
+     */
+    public String getValue() {
+        return quoted && value.indexOf('\'') >= 0 ? value.replace("''", "'") : value;
     }
 
     /**
-     * Returns the Prolog representation of this atom.
+     * Decides if a value has to be quoted to form a valid Prolog atom.
+     * <p>
+     * A value can be written as is if it starts with a lowercase letter and contains only
+     * alphanumeric characters and underscores. The keywords "true", "false" and "null" are always quoted.
+     *
+     * @param value The raw value of the atom.
+     * @return {@code true} if the value must be enclosed in single quotes.
+     */
+    private static boolean requiresQuotes(String value) {
+        int length = value.length();
+        if (length == 0) {
+            return true;
+        }
+        char first = value.charAt(0);
+        if (first >= 128 || CHAR_CLASS[first] != LOWER) {
+            return true;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 128 || CHAR_CLASS[c] == OTHER) {
+                return true;
+            }
+        }
+        return value.equals("true") || value.equals("false") || value.equals("null");
+    }
+
+    /**
+     * Doubles all single quotes of the value in a single pass.
+     *
+     * @param value The raw value of the atom.
+     * @return The value itself if it contains no single quote, otherwise an escaped copy.
+     */
+    private static String escape(String value) {
+        int firstQuote = value.indexOf('\'');
+        if (firstQuote < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        sb.append(value, 0, firstQuote);
+        for (int i = firstQuote; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'') {
+                sb.append('\'');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the Prolog representation of this atom.
      * <p>
      * The method applies Prolog's quoting rules:
      * <ul>
      *     <li>If the atom's value is a simple, unquoted atom (starts with a lowercase letter and contains only
-     *     alphanumeric characters and underscores), it is returned as is.</li>
+     *     alphanumeric characters and underscores), it is written as is.</li>
      *     <li>Otherwise, the value is enclosed in single quotes to form a valid Prolog quoted atom.</li>
      * </ul>
      * This ensures that atoms with special characters, spaces, or those starting with an uppercase letter
-     * are correctly interpreted by a Prolog engine.
+     * are correctly interpreted by a Prolog engine. The decision is taken once, when the atom is constructed.
      *
-     * @return A string representing the atom in valid Prolog syntax.
+     * @param out The target to write to.
+     * @throws IOException If writing to the target fails.
      */
     @Override
-    public String toString() {
-        // If the atom contains special characters or starts with an uppercase letter,
-        // it needs to be quoted in Prolog. A simple heuristic is to always quote it
-        // to avoid issues, or check for specific patterns. For simplicity,
-        // we'll quote if it contains non-alphanumeric characters or starts with uppercase.
-        // Or, if it's a keyword like "true", "false", "null"
-        if (value.matches("^[a-z][a-zA-Z0-9_]*$") &&
-            !value.equals("true") && !value.equals("false") && !value.equals("null")) {
-            return value;
+    public void appendTo(Appendable out) throws IOException {
+        if (quoted) {
+            out.append('\'').append(value).append('\'');
         } else {
-            return "'" + value + "'";
+            out.append(value);
         }
     }
 }
-
@@ -0,0 +1,76 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of canonical {@link Atom}s, holding one atom per distinct value.
+ * <p>
+ * Qualified names, type names and keywords recur in almost every fact. Interning them means each value is
+ * classified and escaped once per run, and the facts share a single instance instead of holding a copy each.
+ * The pool is meant to live for one generation run and is not thread-safe.
+ */
+public class AtomPool {
+    private final Map<String, Atom> atoms = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * Returns the canonical atom of a value, creating it on the first request.
+     *
+     * @param value The string value of the atom.
+     * @return The atom, the same instance for every equal value.
+     */
+    public Atom intern(String value) {
+        Atom atom = atoms.get(value);
+        if (atom != null) {
+            hits++;
+            return atom;
+        }
+        misses++;
+        atom = value.equals("null") ? Atom.NULL : new Atom(value);
+        atoms.put(value, atom);
+        return atom;
+    }
+
+    /**
+     * Returns the number of requests answered with an existing atom.
+     *
+     * @return The number of hits.
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests that created a new atom, which is the number of distinct values.
+     *
+     * @return The number of misses.
+     */
+    public long getMissCount() {
+        return misses;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Read access to a binary fact store written by {@link BinaryFactStoreWriter}.
+ * <p>
+ * The store file is memory-mapped and never parsed as a whole: a type is found by a binary search over the sorted
+ * index, in O(log n) comparisons of UTF-8 bytes, and only its own terms are decoded. Reads use absolute positions
+ * only, so a store can be shared by any number of threads.
+ * <p>
+ * All numbers are big-endian 32-bit integers unless stated otherwise. The file consists of:
+ * <ol>
+ *     <li>A header of {@value #HEADER_SIZE} bytes: the magic number {@code LDFS}, the format version, the number of
+ *     types, the number of strings and the offsets of the index, the string offsets, the string data and the term
+ *     pool.</li>
+ *     <li>The index: per type, the string index of its qualified name and the offset of its fact in the term pool,
+ *     sorted by the unsigned UTF-8 bytes of the name.</li>
+ *     <li>The string table: the offsets of every string in the string data plus the end offset, followed by the
+ *     UTF-8 bytes of all strings.</li>
+ *     <li>The term pool: each term is a tag byte followed by a string index for an atom or doc comment, a 64-bit
+ *     value for an integer, the count and the offsets of the elements for a list, and the string index of the
+ *     predicate, the arity and the offsets of the arguments for a fact. Equal terms are stored once.</li>
+ * </ol>
+ *
+ * @see BinaryFactStoreWriter
+ */
+public final class BinaryFactStore {
+    static final int MAGIC = 0x4C444653;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int INDEX_ENTRY_SIZE = 8;
+    static final byte ATOM = 0;
+    static final byte DOC_COMMENT = 1;
+    static final byte INTEGER = 2;
+    static final byte LIST = 3;
+    static final byte FACT = 4;
+
+    private final ByteBuffer buffer;
+    private final int typeCount;
+    private final int stringCount;
+    private final int indexOffset;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+    private final int termPoolOffset;
+
+    private BinaryFactStore(ByteBuffer buffer, Path file) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary fact store: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary fact store version " + buffer.getInt(4) + ": " + file);
+        }
+        this.typeCount = buffer.getInt(8);
+        this.stringCount = buffer.getInt(12);
+        this.indexOffset = buffer.getInt(16);
+        this.stringOffsetsOffset = buffer.getInt(20);
+        this.stringDataOffset = buffer.getInt(24);
+        this.termPoolOffset = buffer.getInt(28);
+    }
+
+    /**
+     * Opens a store by mapping its file into memory. The mapping stays valid after the file is closed.
+     *
+     * @param file The store file.
+     * @return The store.
+     * @throws IOException If the file cannot be mapped or is not a binary fact store.
+     */
+    public static BinaryFactStore open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new BinaryFactStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+        }
+    }
+
+    /**
+     * Returns the number of types in the store.
+     *
+     * @return The number of types.
+     */
+    public int getTypeCount() {
+        return typeCount;
+    }
+
+    /**
+     * Returns the qualified names of all types, in the order of the index.
+     *
+     * @return An unmodifiable list of names, decoded when accessed.
+     */
+    public List<String> getTypeNames() {
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return string(buffer.getInt(indexOffset + index * INDEX_ENTRY_SIZE));
+            }
+
+            @Override
+            public int size() {
+                return typeCount;
+            }
+        };
+    }
+
+    /**
+     * Looks up the fact of a type.
+     *
+     * @param qualifiedName The fully qualified name of the type, e.g. {@code java.util.List}, or
+     *                      {@code java.util.Map.Entry} for a nested type.
+     * @return The decoded fact, or {@code null} if the store holds no such type.
+     */
+    public Fact getType(String qualifiedName) {
+        byte[] key = qualifiedName.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = typeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = indexOffset + mid * INDEX_ENTRY_SIZE;
+            int comparison = compare(buffer.getInt(entry), key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return (Fact) term(buffer.getInt(entry + 4));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compares the UTF-8 bytes of a string in the table with a key, without decoding the string.
+     */
+    private int compare(int stringIndex, byte[] key) {
+        int start = stringStart(stringIndex);
+        int length = stringStart(stringIndex + 1) - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private int stringStart(int stringIndex) {
+        return stringDataOffset + buffer.getInt(stringOffsetsOffset + stringIndex * Integer.BYTES);
+    }
+
+    private String string(int stringIndex) {
+        if (stringIndex < 0 || stringIndex >= stringCount) {
+            throw new IllegalStateException("Invalid string index " + stringIndex);
+        }
+        int start = stringStart(stringIndex);
+        byte[] bytes = new byte[stringStart(stringIndex + 1) - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a term of the pool and everything it contains.
+     */
+    private Term term(int offset) {
+        int position = termPoolOffset + offset;
+        switch (buffer.get(position)) {
+            case ATOM:
+                String value = string(buffer.getInt(position + 1));
+                return value.equals("null") ? Atom.NULL : new Atom(value);
+            case DOC_COMMENT:
+                return DocComment.of(string(buffer.getInt(position + 1)));
+            case INTEGER:
+                return new PrologInteger(buffer.getLong(position + 1));
+            case LIST: {
+                int size = buffer.getInt(position + 1);
+                Term[] elements = new Term[size];
+                for (int i = 0; i < size; i++) {
+                    elements[i] = term(buffer.getInt(position + 5 + i * Integer.BYTES));
+                }
+                return PrologList.wrap(elements);
+            }
+            case FACT: {
+                String predicate = string(buffer.getInt(position + 1));
+                int arity = buffer.getInt(position + 5);
+                Term[] arguments = new Term[arity];
+                for (int i = 0; i < arity; i++) {
+                    arguments[i] = term(buffer.getInt(position + 9 + i * Integer.BYTES));
+                }
+                return new Fact(predicate, arguments);
+            }
+            default:
+                throw new IllegalStateException("Invalid term tag at offset " + offset);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the type facts of a run into a single binary file that can be memory-mapped and read with
+ * {@link BinaryFactStore}, instead of one {@code .pl} file per type.
+ * <p>
+ * The writer is a {@link FactSink} fed by the {@link PrologVisitor} next to the {@link DocletPrologWriter}s. It keeps
+ * only the type facts, keyed by their fully qualified names; module, package and index facts are ignored. Every
+ * type fact is encoded as soon as it is handed in, into a term pool in which equal terms, e.g. the shared modifier
+ * lists and type references, are stored once. The file itself is written by {@link #finish()}. Encoding happens on
+ * the traversing thread, so no executor is used.
+ * <p>
+ * The layout of the file is described in {@link BinaryFactStore}.
+ *
+ * @see BinaryFactStore
+ */
+public class BinaryFactStoreWriter implements FactSink {
+    private final Path storeFile;
+    private final boolean outputCommentary;
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final Map<ByteBuffer, Integer> termOffsets = new HashMap<>();
+    private final ByteArrayOutputStream termPool = new ByteArrayOutputStream(64 * 1024);
+    private final Map<String, Integer> types = new HashMap<>();
+    private long encodeNanos;
+    private long writeNanos;
+    private long writtenBytes;
+    private int duplicateTypes;
+
+    /**
+     * Constructs a new writer for a binary fact store.
+     *
+     * @param storeFile        The file the store is written to.
+     * @param outputCommentary Whether Javadoc comments are stored, or stripped from the facts beforehand.
+     */
+    public BinaryFactStoreWriter(Path storeFile, boolean outputCommentary) {
+        this.storeFile = storeFile;
+        this.outputCommentary = outputCommentary;
+    }
+
+    /**
+     * Tells if this writer stores Javadoc comments.
+     *
+     * @return {@code true} if the comments are stored.
+     */
+    @Override
+    public boolean isOutputCommentary() {
+        return outputCommentary;
+    }
+
+    /**
+     * Ignored, the store only holds type facts.
+     *
+     * @param indexFact The top-level fact for the index.
+     * @param indexType The name of the index.
+     */
+    @Override
+    public void writeIndexFile(Fact indexFact, String indexType) {
+    }
+
+    /**
+     * Ignored, the store only holds type facts.
+     *
+     * @param moduleName The name of the module.
+     * @param moduleFact The fact representing the module's declaration and contents.
+     */
+    @Override
+    public void writeModuleSummaryFile(String moduleName, Fact moduleFact) {
+    }
+
+    /**
+     * Ignored, the store only holds type facts.
+     *
+     * @param packageName The fully qualified name of the package.
+     * @param packageFact The fact representing the package's declaration.
+     */
+    @Override
+    public void writePackageSummaryFile(String packageName, Fact packageFact) {
+    }
+
+    /**
+     * Ignored, the store only holds type facts.
+     *
+     * @param packageName   The fully qualified name of the package.
+     * @param hierarchyFact The {@code package_hierarchy} fact of the package.
+     */
+    @Override
+    public void writePackageHierarchyFile(String packageName, Fact hierarchyFact) {
+    }
+
+    /**
+     * Encodes a type fact into the term pool, keyed by the fully qualified name of the type.
+     *
+     * @param packageName         The fully qualified name of the package containing the type.
+     * @param fileName            The name of the type's file, not used by the store.
+     * @param qualifiedName       The fully qualified name of the type, e.g. {@code java.util.Map.Entry}.
+     * @param typeDeclarationFact The fact representing the type's declaration and members.
+     */
+    @Override
+    public void writeTypeFile(String packageName, String fileName, String qualifiedName, Fact typeDeclarationFact) {
+        long start = System.nanoTime();
+        Fact fact = outputCommentary ? typeDeclarationFact : typeDeclarationFact.stripDocComments();
+        string(qualifiedName);
+        if (types.put(qualifiedName, encode(fact)) != null) {
+            duplicateTypes++;
+        }
+        encodeNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Writes the store file: the header, the index sorted by the UTF-8 bytes of the type names, the string table
+     * and the term pool.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void finish() throws IOException {
+        long start = System.nanoTime();
+        List<byte[]> stringBytes = new ArrayList<>(strings.size());
+        for (String string : strings.keySet()) {
+            stringBytes.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+        List<Map.Entry<String, Integer>> index = new ArrayList<>(types.entrySet());
+        index.sort((a, b) -> Arrays.compareUnsigned(stringBytes.get(strings.get(a.getKey())), stringBytes.get(strings.get(b.getKey()))));
+
+        int indexOffset = BinaryFactStore.HEADER_SIZE;
+        int stringOffsetsOffset = indexOffset + index.size() * BinaryFactStore.INDEX_ENTRY_SIZE;
+        int stringDataOffset = stringOffsetsOffset + (stringBytes.size() + 1) * Integer.BYTES;
+        long stringDataSize = stringBytes.stream().mapToLong(bytes -> bytes.length).sum();
+        long termPoolOffset = stringDataOffset + stringDataSize;
+        if (termPoolOffset + termPool.size() > Integer.MAX_VALUE) {
+            throw new IOException("Binary fact store exceeds 2 GB: " + storeFile);
+        }
+
+        Path parent = storeFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(storeFile), 64 * 1024))) {
+            out.writeInt(BinaryFactStore.MAGIC);
+            out.writeInt(BinaryFactStore.VERSION);
+            out.writeInt(index.size());
+            out.writeInt(stringBytes.size());
+            out.writeInt(indexOffset);
+            out.writeInt(stringOffsetsOffset);
+            out.writeInt(stringDataOffset);
+            out.writeInt((int) termPoolOffset);
+            for (Map.Entry<String, Integer> entry : index) {
+                out.writeInt(strings.get(entry.getKey()));
+                out.writeInt(entry.getValue());
+            }
+            int offset = 0;
+            for (byte[] bytes : stringBytes) {
+                out.writeInt(offset);
+                offset += bytes.length;
+            }
+            out.writeInt(offset);
+            for (byte[] bytes : stringBytes) {
+                out.write(bytes);
+            }
+            termPool.writeTo(out);
+            out.flush();
+            writtenBytes = out.size();
+        }
+        writeNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Encodes a term and its arguments or elements into the term pool, unless an equal term is already in it.
+     *
+     * @param term The term to encode.
+     * @return The offset of the term in the pool.
+     */
+    private int encode(Term term) {
+        ByteBuffer record;
+        if (term instanceof Atom) {
+            record = ByteBuffer.allocate(5)
+                    .put(term instanceof DocComment ? BinaryFactStore.DOC_COMMENT : BinaryFactStore.ATOM)
+                    .putInt(string(((Atom) term).getValue()));
+        } else if (term instanceof PrologInteger) {
+            record = ByteBuffer.allocate(9).put(BinaryFactStore.INTEGER).putLong(((PrologInteger) term).getValue());
+        } else if (term instanceof PrologList) {
+            PrologList list = (PrologList) term;
+            record = ByteBuffer.allocate(5 + list.size() * Integer.BYTES).put(BinaryFactStore.LIST).putInt(list.size());
+            for (int i = 0; i < list.size(); i++) {
+                record.putInt(encode(list.get(i)));
+            }
+        } else if (term instanceof Fact) {
+            Fact fact = (Fact) term;
+            int arity = fact.getArgumentCount();
+            record = ByteBuffer.allocate(9 + arity * Integer.BYTES)
+                    .put(BinaryFactStore.FACT).putInt(string(fact.getPredicate())).putInt(arity);
+            for (int i = 0; i < arity; i++) {
+                record.putInt(encode(fact.getArgument(i)));
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported term: " + term.getClass().getName());
+        }
+        record.flip();
+        Integer offset = termOffsets.get(record);
+        if (offset == null) {
+            offset = termPool.size();
+            termPool.write(record.array(), 0, record.limit());
+            termOffsets.put(record, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the index of a string in the string table, adding it if needed.
+     *
+     * @param value The string.
+     * @return Its index.
+     */
+    private int string(String value) {
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.put(value, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of files written, which is one once the store has been written.
+     *
+     * @return The number of files written.
+     */
+    @Override
+    public int getWrittenFileCount() {
+        return writtenBytes > 0 ? 1 : 0;
+    }
+
+    /**
+     * Returns the number of types handed in more than once.
+     *
+     * @return The number of duplicate types.
+     */
+    @Override
+    public int getDuplicateFileCount() {
+        return duplicateTypes;
+    }
+
+    /**
+     * Returns the size of the store file.
+     *
+     * @return The number of bytes written.
+     */
+    @Override
+    public long getWrittenByteCount() {
+        return writtenBytes;
+    }
+
+    /**
+     * Returns the time spent encoding the type facts into the term pool.
+     *
+     * @return The encoding time in nanoseconds.
+     */
+    @Override
+    public long getRenderNanos() {
+        return encodeNanos;
+    }
+
+    /**
+     * Returns the time spent writing the store file.
+     *
+     * @return The writing time in nanoseconds.
+     */
+    @Override
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    /**
+     * Returns the store file.
+     *
+     * @return The file the store is written to.
+     */
+    @Override
+    public Path getOutputPath() {
+        return storeFile;
+    }
+
+    /**
+     * Returns the number of types stored.
+     *
+     * @return The number of distinct type names handed in.
+     */
+    public int getTypeCount() {
+        return types.size();
+    }
+
+    /**
+     * Returns the number of distinct terms in the term pool.
+     *
+     * @return The number of pooled terms.
+     */
+    public int getPooledTermCount() {
+        return termOffsets.size();
+    }
+}
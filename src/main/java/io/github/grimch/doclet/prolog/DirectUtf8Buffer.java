@@ -0,0 +1,149 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link Appendable} encoding characters straight into a reusable direct {@link ByteBuffer} in UTF-8.
+ * <p>
+ * Rendered terms are almost entirely ASCII, which is copied byte by byte without going through a
+ * {@link java.nio.charset.CharsetEncoder}. Other characters are encoded by hand; like the encoder of an
+ * {@link java.io.OutputStreamWriter}, an unpaired surrogate is replaced by {@code '?'}. The buffer grows as needed
+ * and keeps its capacity, so one instance per thread can render any number of files.
+ */
+final class DirectUtf8Buffer implements Appendable {
+    private ByteBuffer buffer;
+    /**
+     * A high surrogate at the end of the previous append, waiting for its low surrogate.
+     */
+    private char pendingHighSurrogate;
+
+    /**
+     * @param capacity The initial capacity in bytes.
+     */
+    DirectUtf8Buffer(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Discards the content, keeping the capacity.
+     */
+    void clear() {
+        buffer.clear();
+        pendingHighSurrogate = 0;
+    }
+
+    /**
+     * Completes the content and returns it for reading.
+     *
+     * @return The buffer, positioned at the start of the content and limited to its end. It is only valid until
+     * the next {@link #clear()}.
+     */
+    ByteBuffer flip() {
+        if (pendingHighSurrogate != 0) {
+            ensureCapacity(1);
+            buffer.put((byte) '?');
+            pendingHighSurrogate = 0;
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) {
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+        // Assume ASCII, the slow path makes room for wider characters itself
+        ensureCapacity(end - start);
+        ByteBuffer out = buffer;
+        int i = start;
+        if (pendingHighSurrogate == 0) {
+            for (; i < end; i++) {
+                char c = csq.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                out.put((byte) c);
+            }
+        }
+        for (; i < end; i++) {
+            appendChar(csq.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+        if (c < 0x80 && pendingHighSurrogate == 0) {
+            ensureCapacity(1);
+            buffer.put((byte) c);
+        } else {
+            appendChar(c);
+        }
+        return this;
+    }
+
+    private void appendChar(char c) {
+        ensureCapacity(4);
+        ByteBuffer out = buffer;
+        if (pendingHighSurrogate != 0) {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+                return;
+            }
+            out.put((byte) '?');
+        }
+        if (c < 0x80) {
+            out.put((byte) c);
+        } else if (c < 0x800) {
+            out.put((byte) (0xC0 | (c >> 6)));
+            out.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            out.put((byte) '?');
+        } else {
+            out.put((byte) (0xE0 | (c >> 12)));
+            out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            out.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            larger.put(buffer.flip());
+            buffer = larger;
+        }
+    }
+}
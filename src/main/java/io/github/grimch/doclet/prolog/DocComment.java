@@ -0,0 +1,64 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+/**
+ * An {@link Atom} holding the Javadoc comment of an element.
+ * <p>
+ * Doc comments are rendered exactly like any other atom, but being marked as such allows the
+ * "minimal" output to be derived from the "full" one by replacing them with an empty comment
+ * (see {@link Term#stripDocComments()}) instead of traversing the source model a second time.
+ *
+ * @see Atom
+ */
+public class DocComment extends Atom {
+    /**
+     * The shared empty doc comment, used for elements without a comment and for the minimal output.
+     */
+    public static final DocComment EMPTY = new DocComment("");
+
+    private DocComment(String value) {
+        super(value);
+    }
+
+    /**
+     * Returns a doc comment atom for the given text.
+     *
+     * @param value The (already line-escaped) comment text.
+     * @return A new doc comment, or {@link #EMPTY} if the text is empty.
+     */
+    public static DocComment of(String value) {
+        return value.isEmpty() ? EMPTY : new DocComment(value);
+    }
+
+    /**
+     * Replaces this comment with the shared {@link #EMPTY} comment.
+     *
+     * @return {@link #EMPTY}.
+     */
+    @Override
+    public Term stripDocComments() {
+        return EMPTY;
+    }
+}
@@ -23,10 +23,33 @@
  */
 package io.github.grimch.doclet.prolog;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Manages the writing of Prolog facts to the file system.
@@ -34,15 +57,91 @@ import java.nio.file.Path;
  * This class is responsible for creating the necessary directory structure that mirrors the Java package
  * hierarchy and writing the generated {@link Fact} objects into {@code .pl} files. It ensures that
  * different kinds of declarations (module, package, type) are written to their appropriate locations.
+ * <p>
+ * Facts are always handed to the writer in their "full" form. A writer that does not output commentary
+ * strips the {@link DocComment}s before writing, so that a single traversal can feed both the full and the
+ * minimal output.
+ * <p>
+ * Rendering and file I/O are handed to an {@link Executor}. The facts passed in are never modified afterwards,
+ * so files can be rendered and written on worker threads while the caller continues traversing the javac model,
+ * which is not thread-safe and stays on the caller's thread. Every file is rendered independently, so the output
+ * is the same whatever the number of threads. Failures are collected and reported by {@link #finish()}.
+ * <p>
+ * In incremental mode the writer keeps a manifest of the SHA-256 hash of every file it produced
+ * ({@value #MANIFEST_FILE_NAME}, in the format of {@code sha256sum}). A file whose rendered bytes match the
+ * manifest entry of the previous run is not written again, and files of the previous run that were not produced
+ * this time, e.g. for deleted types, are removed.
+ * <p>
+ * Every file is rendered into memory before it is written, so the writer can tell the time spent rendering from the
+ * time spent on disk I/O, see {@link #getRenderNanos()} and {@link #getWriteNanos()}. With direct encoding the
+ * facts are encoded in UTF-8 straight into a reusable direct buffer per thread, which is written through a
+ * {@link FileChannel}; otherwise they go through a {@link java.io.Writer} into a fresh byte array.
+ * <p>
+ * The directories created for a package are remembered, so they are created once per run rather than checked
+ * again for every file, see {@link #getSavedDirectoryCreationCount()}.
+ * <p>
+ * Instead of the file system, the files can be written into a {@link PrologArchive}, which may be shared by several
+ * writers, e.g. the ones for the full and the minimal output. The entries are named as the files would be relative
+ * to the archive's root directory.
+ * <p>
+ * With package bundles, the type facts of a package are not written to a file per type, but concatenated in the
+ * order of their names into a single file {@value #BUNDLE_FILE_NAME}{@code .pl} per package. Next to it,
+ * {@value #BUNDLE_INDEX_FILE_NAME}{@code .pl} holds a {@code type_bundle_index} fact with the byte offset and length
+ * of every type in the bundle, so a reader can open one file per package and seek straight to a single type. The
+ * rendered types are kept in memory until {@link #finish()} writes the bundles.
  *
  * @see Fact
+ * @see FactSink
  * @see PrologVisitor
  */
-public class DocletPrologWriter {
+public class DocletPrologWriter implements FactSink {
+    /**
+     * The name of the manifest file, placed in the output directory, listing the hashes of all written files.
+     */
+    public static final String MANIFEST_FILE_NAME = ".manifest.sha256";
+
+    /**
+     * The base name of the file holding all type facts of a package in bundle mode. It cannot clash with the name
+     * of a type, since it is not a Java identifier.
+     */
+    public static final String BUNDLE_FILE_NAME = "package-bundle";
+
+    /**
+     * The base name of the file holding the offsets of the types in a package's bundle.
+     */
+    public static final String BUNDLE_INDEX_FILE_NAME = "package-bundle-index";
+
+    /**
+     * The base name of the file holding the transitive supertypes and inherited members of a package's types.
+     */
+    public static final String HIERARCHY_FILE_NAME = "package-hierarchy";
 
     private final Path outputDirectory;
     private final boolean prettyPrint;
+    private final boolean outputCommentary;
     private final PrettyPrinter prettyPrinter = new PrettyPrinter();
+    private final Executor executor;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final boolean incremental;
+    private final Map<String, String> previousManifest;
+    private final Map<String, String> manifest = new ConcurrentHashMap<>();
+    private final AtomicInteger writtenFiles = new AtomicInteger();
+    private final AtomicInteger skippedFiles = new AtomicInteger();
+    private final AtomicInteger deletedFiles = new AtomicInteger();
+    private final Set<Path> scheduledFiles = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger duplicateFiles = new AtomicInteger();
+    private final LongAdder writtenBytes = new LongAdder();
+    private final LongAdder renderNanos = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final boolean directEncoding;
+    private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+    private final LongAdder savedDirectoryCreations = new LongAdder();
+    private final PrologArchive archive;
+    private final boolean bundlePackages;
+    private final Map<String, Map<String, byte[]>> bundles = new ConcurrentHashMap<>();
+    private final TokenCounter tokenCounter;
+    private final TokenReport tokenReport;
+    private final ThreadLocal<DirectUtf8Buffer> directBuffers = ThreadLocal.withInitial(() -> new DirectUtf8Buffer(64 * 1024));
 
     /**
      * Constructs a new writer that will output files to the specified base directory.
@@ -52,8 +151,165 @@ public class DocletPrologWriter {
      * @param prettyPrint     PrettyPrint flag which enables formatted, indented output.
      */
     public DocletPrologWriter(Path outputDirectory, boolean prettyPrint) {
-        this.outputDirectory = outputDirectory;
-        this.prettyPrint = prettyPrint;
+        this(builder(outputDirectory).prettyPrint(prettyPrint));
+    }
+
+    private DocletPrologWriter(Builder builder) {
+        this.outputDirectory = builder.outputDirectory;
+        this.prettyPrint = builder.prettyPrint;
+        this.outputCommentary = builder.outputCommentary;
+        this.executor = builder.executor;
+        this.incremental = builder.incremental && builder.archive == null;
+        this.directEncoding = builder.directEncoding;
+        this.tokenCounter = builder.tokenCounter;
+        this.tokenReport = builder.tokenCounter != null ? new TokenReport(outputDirectory) : null;
+        this.archive = builder.archive;
+        this.bundlePackages = builder.bundlePackages;
+        this.previousManifest = this.incremental ? readManifest(outputDirectory.resolve(MANIFEST_FILE_NAME)) : Map.of();
+    }
+
+    /**
+     * Starts building a writer that will output files to the specified base directory. Unless configured otherwise,
+     * the writer outputs compact facts with their Javadoc comments, renders and writes every file on the calling
+     * thread, and writes every file to the file system.
+     *
+     * @param outputDirectory The root directory where the Prolog files and their
+     *                        directory structure will be created.
+     * @return The builder.
+     */
+    public static Builder builder(Path outputDirectory) {
+        return new Builder(outputDirectory);
+    }
+
+    /**
+     * Configures a {@link DocletPrologWriter}.
+     */
+    public static final class Builder {
+        private final Path outputDirectory;
+        private boolean prettyPrint;
+        private boolean outputCommentary = true;
+        private Executor executor = Runnable::run;
+        private boolean incremental;
+        private boolean directEncoding;
+        private PrologArchive archive;
+        private boolean bundlePackages;
+        private TokenCounter tokenCounter;
+
+        private Builder(Path outputDirectory) {
+            this.outputDirectory = outputDirectory;
+        }
+
+        /**
+         * Sets if the facts are formatted and indented.
+         *
+         * @param prettyPrint PrettyPrint flag which enables formatted, indented output.
+         * @return This builder.
+         */
+        public Builder prettyPrint(boolean prettyPrint) {
+            this.prettyPrint = prettyPrint;
+            return this;
+        }
+
+        /**
+         * Sets if Javadoc comments are written, or stripped from the facts beforehand.
+         *
+         * @param outputCommentary {@code true} for the "full" output, {@code false} for the "minimal" output.
+         * @return This builder.
+         */
+        public Builder outputCommentary(boolean outputCommentary) {
+            this.outputCommentary = outputCommentary;
+            return this;
+        }
+
+        /**
+         * Sets the executor rendering and writing each file.
+         *
+         * @param executor The executor. All tasks must have completed before {@link DocletPrologWriter#finish()} is
+         *                 called.
+         * @return This builder.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets if unchanged files are skipped and stale files deleted, based on the manifest of the previous run.
+         * Ignored when writing into an archive.
+         *
+         * @param incremental {@code true} for incremental mode.
+         * @return This builder.
+         */
+        public Builder incremental(boolean incremental) {
+            this.incremental = incremental;
+            return this;
+        }
+
+        /**
+         * Sets if facts are encoded into a direct buffer and written through a {@link FileChannel} instead of a
+         * {@link java.io.Writer}. The bytes written are the same.
+         *
+         * @param directEncoding {@code true} for direct encoding.
+         * @return This builder.
+         */
+        public Builder directEncoding(boolean directEncoding) {
+            this.directEncoding = directEncoding;
+            return this;
+        }
+
+        /**
+         * Sets the archive receiving the files instead of the file system.
+         *
+         * @param archive The archive, or {@code null} for the file system. The caller closes it once all writers
+         *                sharing it have finished.
+         * @return This builder.
+         */
+        public Builder archive(PrologArchive archive) {
+            this.archive = archive;
+            return this;
+        }
+
+        /**
+         * Sets if the types of a package are written into a single bundle file with an offset index instead of a
+         * file per type.
+         *
+         * @param bundlePackages {@code true} for bundle mode.
+         * @return This builder.
+         */
+        public Builder bundlePackages(boolean bundlePackages) {
+            this.bundlePackages = bundlePackages;
+            return this;
+        }
+
+        /**
+         * Sets the counter of the tokens of every rendered file, reported in a {@link TokenReport}.
+         *
+         * @param tokenCounter The counter, or {@code null} for no report.
+         * @return This builder.
+         */
+        public Builder tokenCounter(TokenCounter tokenCounter) {
+            this.tokenCounter = tokenCounter;
+            return this;
+        }
+
+        /**
+         * Builds the writer. In incremental mode, the manifest of the previous run is read.
+         *
+         * @return The writer.
+         */
+        public DocletPrologWriter build() {
+            return new DocletPrologWriter(this);
+        }
+    }
+
+    /**
+     * Tells if this writer outputs Javadoc comments.
+     *
+     * @return {@code true} for the "full" output, {@code false} for the "minimal" output.
+     */
+    @Override
+    public boolean isOutputCommentary() {
+        return outputCommentary;
     }
 
     /**
@@ -63,6 +319,7 @@ public class DocletPrologWriter {
      * @param indexFact The top-level fact for the index.
      * @throws IOException If an I/O error occurs while writing the file.
      */
+    @Override
     public void writeIndexFile(Fact indexFact, String indexType) throws IOException {
         writeFactToFile("", indexType, indexFact);
     }
@@ -75,6 +332,7 @@ public class DocletPrologWriter {
      * @param moduleName The name of the module (e.g., "java.base").
      * @param moduleFact The fact representing the module's declaration and contents.
      */
+    @Override
     public void writeModuleSummaryFile(String moduleName, Fact moduleFact)  {
         writeFactToFile(moduleName, "module", moduleFact);
     }
@@ -87,21 +345,57 @@ public class DocletPrologWriter {
      * @param packageName The fully qualified name of the package (e.g., "java.util").
      * @param packageFact The fact representing the package's declaration.
      */
+    @Override
     public void writePackageSummaryFile(String packageName, Fact packageFact)  {
         writeFactToFile(packageName, "package", packageFact);
     }
 
+    /**
+     * Writes the hierarchy file for a Java package, see {@link TypeHierarchy}.
+     * The file will be named {@value #HIERARCHY_FILE_NAME}{@code .pl} and placed next to the package's type files.
+     *
+     * @param packageName   The fully qualified name of the package (e.g., "java.util").
+     * @param hierarchyFact The {@code package_hierarchy} fact of the package.
+     */
+    @Override
+    public void writePackageHierarchyFile(String packageName, Fact hierarchyFact) {
+        writeFactToFile(packageName, HIERARCHY_FILE_NAME, hierarchyFact);
+    }
+
     /**
      * Writes a file for a specific Java type (class, interface, etc.).
-     * The file will be named after the type (e.g., {@code String.pl}) and placed in a
-     * directory structure that mirrors its package.
+     * The file will be named after the given file name (e.g., {@code String.pl}) and placed in a
+     * directory structure that mirrors its package. The file names are handed out by the {@link PrologVisitor}
+     * before the file is scheduled, so two nested types sharing a simple name never race for the same file.
+     *
+     * @param packageName         The fully qualified name of the package containing the type.
+     * @param fileName            The name of the file without extension, e.g. {@code String} or {@code B.Builder}.
+     * @param qualifiedName       The fully qualified name of the type.
+     * @param typeDeclarationFact The fact representing the type's declaration and members.
+     */
+    @Override
+    public void writeTypeFile(String packageName, String fileName, String qualifiedName, Fact typeDeclarationFact) {
+        if (tokenReport != null) {
+            tokenReport.addType(packageName, fileName, qualifiedName);
+        }
+        if (bundlePackages) {
+            writeFactToBundle(packageName, fileName, typeDeclarationFact);
+        } else {
+            writeFactToFile(packageName, fileName, typeDeclarationFact);
+        }
+    }
+
+    /**
+     * Writes a file for a top level type, named after its simple name, see
+     * {@link #writeTypeFile(String, String, String, Fact)}.
      *
      * @param packageName The fully qualified name of the package containing the type.
      * @param typeName    The simple name of the type (e.g., "String").
      * @param typeDeclarationFact The fact representing the type's declaration and members.
      */
     public void writeTypeFile(String packageName, String typeName, Fact typeDeclarationFact) {
-        writeFactToFile(packageName, typeName, typeDeclarationFact);
+        writeTypeFile(packageName, typeName, packageName.isEmpty() ? typeName : packageName + "." + typeName,
+                typeDeclarationFact);
     }
 
     /**
@@ -117,25 +411,509 @@ public class DocletPrologWriter {
     }
 
     /**
-     * Core file-writing method. It creates the necessary directories and writes the
-     * fact to the specified file.
+     * Schedules the rendering and writing of a fact on the executor. Once a write has failed,
+     * no further files are scheduled. Files scheduled more than once are counted, see {@link #getDuplicateFileCount()}.
      *
      * @param fileDir  The directory where the file should be saved.
      * @param fileName The base name of the file (without extension).
      * @param fact     The fact to be written.
-     * @throws RuntimeException if an {@link IOException} occurs during file operations.
      */
     private void writeFactToFile(Path fileDir, String fileName,  Fact fact) {
-        try {
-            Files.createDirectories(fileDir);
-            Path factFilePath = fileDir.resolve(fileName + ".pl");
+        if (failure.get() != null) {
+            return;
+        }
+        if (!scheduledFiles.add(fileDir.resolve(fileName))) {
+            duplicateFiles.incrementAndGet();
+        }
+        executor.execute(() -> {
+            try {
+                renderFactToFile(fileDir, fileName, fact);
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    /**
+     * Schedules the rendering of a type fact on the executor, keeping the rendered bytes for the bundle of
+     * its package.
+     *
+     * @param packageName The fully qualified name of the package containing the type.
+     * @param typeName    The name of the type's file, the key of the type in the bundle.
+     * @param fact        The fact to be written.
+     */
+    private void writeFactToBundle(String packageName, String typeName, Fact fact) {
+        if (failure.get() != null) {
+            return;
+        }
+        Map<String, byte[]> bundle = bundles.computeIfAbsent(packageName, name -> new ConcurrentSkipListMap<>());
+        executor.execute(() -> {
+            try {
+                Fact bundledFact = outputCommentary ? fact : fact.stripDocComments();
+                long start = System.nanoTime();
+                byte[] content = render(bundledFact);
+                if (tokenCounter != null) {
+                    tokenReport.addFile(outputDirectory.resolve(packageName.replace('.', '/')).resolve(typeName),
+                            tokenCounter.count(ByteBuffer.wrap(content)));
+                }
+                renderNanos.add(System.nanoTime() - start);
+                if (bundle.put(typeName, content) != null) {
+                    duplicateFiles.incrementAndGet();
+                }
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
 
-            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(factFilePath))) {
-                // Write the main type declaration fact, terminated by a period.
-                writer.println(prettyPrint ? prettyPrinter.prettyPrint(fact) : fact.toString() + ".");
+    /**
+     * Completes the output of this writer. Must be called once all scheduled writes have been executed.
+     * In bundle mode, this writes the bundle of every package.
+     *
+     * @throws IOException If any of the writes failed; the first failure is reported.
+     */
+    @Override
+    public void finish() throws IOException {
+        Throwable t = failure.get();
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        } else if (t != null) {
+            throw new IOException("Error writing Prolog facts to " + outputDirectory, t);
+        }
+        for (Map.Entry<String, Map<String, byte[]>> bundle : new TreeMap<>(bundles).entrySet()) {
+            writeBundle(bundle.getKey(), bundle.getValue());
+        }
+        bundles.clear();
+        if (tokenReport != null) {
+            writeTokenReport();
+        }
+        if (archive != null) {
+            return;
+        }
+        Path manifestFile = outputDirectory.resolve(MANIFEST_FILE_NAME);
+        if (!incremental) {
+            // Files written without hashing would not match an older manifest any more
+            Files.deleteIfExists(manifestFile);
+            return;
+        }
+        for (String relativePath : previousManifest.keySet()) {
+            if (!manifest.containsKey(relativePath)) {
+                deleteStaleFile(outputDirectory.resolve(relativePath));
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(manifest).forEach((relativePath, hash) -> lines.add(hash + "  " + relativePath));
+        Files.createDirectories(outputDirectory);
+        Files.write(manifestFile, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of files written by this writer.
+     *
+     * @return The number of files written, excluding the files skipped in incremental mode.
+     */
+    @Override
+    public int getWrittenFileCount() {
+        return writtenFiles.get();
+    }
+
+    /**
+     * Returns the number of files that were not written in incremental mode because their content did not change.
+     *
+     * @return The number of skipped files.
+     */
+    @Override
+    public int getSkippedFileCount() {
+        return skippedFiles.get();
+    }
+
+    /**
+     * Returns the number of files of the previous run deleted in incremental mode, because they were not
+     * produced any more.
+     *
+     * @return The number of deleted files.
+     */
+    public int getDeletedFileCount() {
+        return deletedFiles.get();
+    }
+
+    /**
+     * Returns the number of times a file was scheduled for writing although it had already been written
+     * during this run. This is zero unless an element was visited more than once.
+     *
+     * @return The number of duplicate writes.
+     */
+    @Override
+    public int getDuplicateFileCount() {
+        return duplicateFiles.get();
+    }
+
+    /**
+     * Returns the number of bytes written by this writer.
+     *
+     * @return The total size of the files written, excluding the files skipped in incremental mode.
+     */
+    @Override
+    public long getWrittenByteCount() {
+        return writtenBytes.sum();
+    }
+
+    /**
+     * Returns the time spent rendering facts, summed over all threads rendering files of this writer.
+     *
+     * @return The rendering time in nanoseconds.
+     */
+    @Override
+    public long getRenderNanos() {
+        return renderNanos.sum();
+    }
+
+    /**
+     * Returns the time spent writing rendered files, including creating their directories and, in incremental mode,
+     * hashing and comparing them. It is summed over all threads writing files of this writer.
+     *
+     * @return The writing time in nanoseconds.
+     */
+    @Override
+    public long getWriteNanos() {
+        return writeNanos.sum();
+    }
+
+    /**
+     * Returns the number of times a file was written into a directory this writer had already created, so that
+     * {@link Files#createDirectories} was not called again. Each call saved at least a {@code mkdir} and a
+     * {@code stat} system call, and more on file systems checking every parent.
+     *
+     * @return The number of directory creations saved.
+     */
+    @Override
+    public long getSavedDirectoryCreationCount() {
+        return savedDirectoryCreations.sum();
+    }
+
+    /**
+     * Tells if this writer only writes changed files.
+     *
+     * @return {@code true} in incremental mode.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Tells if this writer encodes facts directly into buffers written through file channels.
+     *
+     * @return {@code true} with direct encoding.
+     */
+    public boolean isDirectEncoding() {
+        return directEncoding;
+    }
+
+    /**
+     * Tells if this writer bundles the types of each package into a single file.
+     *
+     * @return {@code true} in bundle mode.
+     */
+    public boolean isBundlePackages() {
+        return bundlePackages;
+    }
+
+    /**
+     * Returns the token report of this writer, complete once {@link #finish()} has been called.
+     *
+     * @return The report, or {@code null} if this writer does not count tokens.
+     */
+    public TokenReport getTokenReport() {
+        return tokenReport;
+    }
+
+    /**
+     * Returns the archive this writer writes into.
+     *
+     * @return The archive, or {@code null} when writing to the file system.
+     */
+    public PrologArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Returns the root directory of this writer's output.
+     *
+     * @return The output directory.
+     */
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * Returns the root directory of this writer's output, see {@link #getOutputDirectory()}.
+     *
+     * @return The output directory.
+     */
+    @Override
+    public Path getOutputPath() {
+        return outputDirectory;
+    }
+
+    /**
+     * Core file-writing method. It renders the fact, creates the necessary directories and writes the
+     * rendered bytes to the specified file, or adds them to the archive.
+     *
+     * @param fileDir  The directory where the file should be saved.
+     * @param fileName The base name of the file (without extension).
+     * @param fact     The fact to be written.
+     * @throws IOException if an error occurs during file operations.
+     */
+    private void renderFactToFile(Path fileDir, String fileName,  Fact fact) throws IOException {
+        if (!outputCommentary) {
+            fact = fact.stripDocComments();
+        }
+        Path factFilePath = fileDir.resolve(fileName + ".pl");
+
+        long start = System.nanoTime();
+        ByteBuffer content = directEncoding ? renderDirect(fact) : ByteBuffer.wrap(render(fact));
+        if (tokenCounter != null) {
+            tokenReport.addFile(fileDir.resolve(fileName), tokenCounter.count(content));
+        }
+        long rendered = System.nanoTime();
+        renderNanos.add(rendered - start);
+        store(fileDir, factFilePath, content);
+        writeNanos.add(System.nanoTime() - rendered);
+    }
+
+    /**
+     * Writes the bundle of a package and its offset index. The types are concatenated in the order of their names.
+     *
+     * @param packageName The fully qualified name of the package.
+     * @param types       The rendered type facts, keyed and sorted by the simple name of the type.
+     * @throws IOException if an error occurs during file operations.
+     */
+    private void writeBundle(String packageName, Map<String, byte[]> types) throws IOException {
+        Path fileDir = outputDirectory.resolve(packageName.replace('.', '/'));
+        long start = System.nanoTime();
+        int size = 0;
+        for (byte[] type : types.values()) {
+            size += type.length;
+        }
+        ByteBuffer content = ByteBuffer.allocate(size);
+        List<Term> offsets = new ArrayList<>(types.size());
+        for (Map.Entry<String, byte[]> type : types.entrySet()) {
+            offsets.add(new Fact("type_offset", new Atom(type.getKey()),
+                    new PrologInteger(content.position()), new PrologInteger(type.getValue().length)));
+            content.put(type.getValue());
+        }
+        content.flip();
+        store(fileDir, fileDir.resolve(BUNDLE_FILE_NAME + ".pl"), content);
+        writeNanos.add(System.nanoTime() - start);
+
+        renderFactToFile(fileDir, BUNDLE_INDEX_FILE_NAME,
+                new Fact("type_bundle_index", new Atom(packageName), PrologList.of(offsets)));
+    }
+
+    /**
+     * Writes the token report, one fact per line. Its own tokens are not counted.
+     *
+     * @throws IOException if an error occurs during file operations.
+     */
+    private void writeTokenReport() throws IOException {
+        StringBuilder report = new StringBuilder();
+        for (Fact fact : tokenReport.toFacts()) {
+            fact.appendTo(report);
+            report.append('.').append(System.lineSeparator());
+        }
+        long start = System.nanoTime();
+        store(outputDirectory, outputDirectory.resolve(TokenReport.FILE_NAME + ".pl"),
+                ByteBuffer.wrap(report.toString().getBytes(StandardCharsets.UTF_8)));
+        writeNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Stores rendered content either in the archive, or in a file if it changed in incremental mode, or in a file.
+     *
+     * @param fileDir      The directory of the file.
+     * @param factFilePath The file to write.
+     * @param content      The rendered content of the file.
+     * @throws IOException if an error occurs during file operations.
+     */
+    private void store(Path fileDir, Path factFilePath, ByteBuffer content) throws IOException {
+        if (archive != null) {
+            int length = content.remaining();
+            archive.write(factFilePath, content);
+            writtenFiles.incrementAndGet();
+            writtenBytes.add(length);
+        } else if (incremental) {
+            writeIfChanged(factFilePath, content);
+        } else {
+            createDirectories(fileDir);
+            write(factFilePath, content);
+        }
+    }
+
+    /**
+     * Renders a fact, terminated by a period and a line separator.
+     *
+     * @param fact The fact to render.
+     * @param out  The target to stream the fact into.
+     * @throws IOException If writing to the target fails.
+     */
+    private void render(Fact fact, Appendable out) throws IOException {
+        if (prettyPrint) {
+            prettyPrinter.prettyPrint(fact, out);
+        } else {
+            fact.appendTo(out);
+            out.append('.');
+        }
+        out.append(System.lineSeparator());
+    }
+
+    /**
+     * Renders a fact in UTF-8 through a {@link java.io.Writer}.
+     *
+     * @param fact The fact to render.
+     * @return The content of the file.
+     * @throws IOException If rendering fails.
+     */
+    private byte[] render(Fact fact) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            render(fact, writer);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Renders a fact in UTF-8 into the direct buffer of the current thread.
+     *
+     * @param fact The fact to render.
+     * @return The content of the file, valid until the next fact is rendered on this thread.
+     * @throws IOException If rendering fails.
+     */
+    private ByteBuffer renderDirect(Fact fact) throws IOException {
+        DirectUtf8Buffer buffer = directBuffers.get();
+        buffer.clear();
+        render(fact, buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * Creates a directory and its parents, unless this writer already did so during this run.
+     *
+     * @param dir The directory.
+     * @throws IOException If the directory cannot be created.
+     */
+    private void createDirectories(Path dir) throws IOException {
+        if (createdDirectories.contains(dir)) {
+            savedDirectoryCreations.increment();
+            return;
+        }
+        Files.createDirectories(dir);
+        createdDirectories.add(dir);
+    }
+
+    /**
+     * Writes rendered content to a file, from its position to its limit, through a {@link FileChannel} for a direct
+     * buffer. The content is consumed.
+     *
+     * @param factFilePath The file to write.
+     * @param content      The rendered content of the file.
+     * @throws IOException If an error occurs during file operations.
+     */
+    private void write(Path factFilePath, ByteBuffer content) throws IOException {
+        int length = content.remaining();
+        if (content.hasArray()) {
+            try (OutputStream out = Files.newOutputStream(factFilePath)) {
+                out.write(content.array(), content.arrayOffset() + content.position(), length);
+            }
+            content.position(content.limit());
+        } else {
+            try (FileChannel channel = FileChannel.open(factFilePath,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+        }
+        writtenFiles.incrementAndGet();
+        writtenBytes.add(length);
+    }
+
+    /**
+     * Only writes a rendered file if its hash differs from the previous run's manifest entry,
+     * or if the file of the previous run is gone or was modified in size.
+     *
+     * @param factFilePath The file to write.
+     * @param content      The rendered content of the file.
+     * @throws IOException If an error occurs during file operations.
+     */
+    private void writeIfChanged(Path factFilePath, ByteBuffer content) throws IOException {
+        String relativePath = outputDirectory.relativize(factFilePath).toString().replace('\\', '/');
+        String hash = sha256(content);
+        manifest.put(relativePath, hash);
+
+        if (hash.equals(previousManifest.get(relativePath))
+                && Files.isRegularFile(factFilePath) && Files.size(factFilePath) == content.remaining()) {
+            skippedFiles.incrementAndGet();
+            return;
+        }
+        createDirectories(factFilePath.getParent());
+        write(factFilePath, content);
+    }
+
+    /**
+     * Deletes a file of the previous run together with the directories it leaves empty.
+     *
+     * @param file The file to delete.
+     * @throws IOException If the file cannot be deleted.
+     */
+    private void deleteStaleFile(Path file) throws IOException {
+        if (Files.deleteIfExists(file)) {
+            deletedFiles.incrementAndGet();
+        }
+        for (Path dir = file.getParent(); dir != null && dir.startsWith(outputDirectory) && !dir.equals(outputDirectory); dir = dir.getParent()) {
+            try {
+                Files.deleteIfExists(dir);
+            } catch (DirectoryNotEmptyException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Reads the manifest of a previous run. A missing or unreadable manifest is treated as empty,
+     * which simply causes all files to be written.
+     *
+     * @param manifestFile The manifest file.
+     * @return The hashes of the previous run, keyed by the path relative to the output directory.
+     */
+    private static Map<String, String> readManifest(Path manifestFile) {
+        Map<String, String> hashes = new HashMap<>();
+        if (!Files.isRegularFile(manifestFile)) {
+            return hashes;
+        }
+        try {
+            for (String line : Files.readAllLines(manifestFile, StandardCharsets.UTF_8)) {
+                int separator = line.indexOf("  ");
+                if (separator > 0) {
+                    hashes.put(line.substring(separator + 2), line.substring(0, separator));
+                }
             }
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            hashes.clear();
+        }
+        return hashes;
+    }
+
+    /**
+     * Computes the hex encoded SHA-256 hash of some content.
+     */
+    private static String sha256(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
         }
     }
 
@@ -23,9 +23,10 @@
  */
 package io.github.grimch.doclet.prolog;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Represents a Prolog fact, which is a statement that declares a relationship between objects.
@@ -35,6 +36,9 @@ import java.util.stream.Collectors;
  * <p>
  * For example, {@code parent(john, mary)} could be a fact where 'parent' is the predicate,
  * and 'john' and 'mary' are terms (Atoms).
+ * <p>
+ * Facts are immutable. The arguments are kept in a plain array, which saves the list wrapper per fact on
+ * large runs.
  *
  * @see Term
  * @see Atom
@@ -45,37 +49,117 @@ public class Fact extends Term {
         return predicate;
     }
 
+    /**
+     * Returns the arguments of this fact.
+     *
+     * @return An unmodifiable view of the arguments.
+     */
     public List<Term> getArguments() {
-        return arguments;
+        return Collections.unmodifiableList(Arrays.asList(arguments));
+    }
+
+    /**
+     * Returns the number of arguments of this fact.
+     *
+     * @return The arity of the fact.
+     */
+    public int getArgumentCount() {
+        return arguments.length;
+    }
+
+    /**
+     * Returns an argument of this fact.
+     *
+     * @param index The zero-based index of the argument.
+     * @return The argument.
+     */
+    public Term getArgument(int index) {
+        return arguments[index];
     }
 
     private final String predicate;
-    private final List<Term> arguments;
+    private final Term[] arguments;
+    /**
+     * The compact rendering of this fact, if it was computed up front, otherwise {@code null}.
+     */
+    private final String rendered;
 
     /**
      * Constructs a new Prolog fact.
      *
      * @param predicate The name of the fact's predicate.
      * @param arguments A variable number of {@link Term} objects that are the arguments of the fact.
+     *                  An array passed explicitly is not copied and must not be modified afterwards.
      */
     public Fact(String predicate, Term... arguments) {
         this.predicate = predicate;
-        this.arguments = Arrays.asList(arguments);
+        this.arguments = arguments;
+        this.rendered = null;
+    }
+
+    private Fact(Fact fact, String rendered) {
+        this.predicate = fact.predicate;
+        this.arguments = fact.arguments;
+        this.rendered = rendered;
     }
 
     /**
-     * Generates the string representation of the Prolog fact.
+     * Returns an equivalent fact that carries its compact rendering, computed once by this call.
      * <p>
-     * The output is a string in the format {@code predicate(arg1, arg2, ...)}, where each argument
-     * is recursively converted to its own string representation.
+     * This is meant for facts that are shared by many enclosing terms, such as canonical type terms:
+     * every later {@link #appendTo(Appendable)} just copies the pre-rendered text.
+     *
+     * @param fact The fact to render.
+     * @return A fact with the same predicate and arguments and a pre-rendered representation.
+     */
+    public static Fact prerendered(Fact fact) {
+        return fact.rendered != null ? fact : new Fact(fact, fact.toString());
+    }
+
+    /**
+     * Writes the Prolog representation of the fact.
+     * <p>
+     * The output is in the format {@code predicate(arg1, arg2, ...)}, where each argument
+     * is recursively written to the same target. A {@link #prerendered(Fact) pre-rendered} fact
+     * writes its stored text instead.
+     *
+     * @param out The target to write to.
+     * @throws IOException If writing to the target fails.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        if (rendered != null) {
+            out.append(rendered);
+            return;
+        }
+        out.append(predicate).append('(');
+        for (int i = 0; i < arguments.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            arguments[i].appendTo(out);
+        }
+        out.append(')');
+    }
+
+    /**
+     * Returns this fact with all nested {@link DocComment}s replaced by empty comments.
      *
-     * @return A string representing the fact in valid Prolog syntax.
+     * @return This fact if none of its arguments changed, otherwise a new fact with the stripped arguments.
      */
     @Override
-    public String toString() {
-        String args = arguments.stream()
-                .map(Term::toString)
-                .collect(Collectors.joining(", "));
-        return predicate + "(" + args + ")";
+    public Fact stripDocComments() {
+        Term[] stripped = null;
+        for (int i = 0; i < arguments.length; i++) {
+            Term argument = arguments[i];
+            Term strippedArgument = argument.stripDocComments();
+            if (strippedArgument != argument && stripped == null) {
+                stripped = arguments.clone();
+            }
+            if (stripped != null) {
+                stripped[i] = strippedArgument;
+            }
+        }
+        return stripped == null ? this : new Fact(predicate, stripped);
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Receives the facts built by the {@link PrologVisitor} and persists them.
+ * <p>
+ * The visitor hands every fact to all of its sinks, in its "full" form. A sink decides which facts it keeps and in
+ * which form: {@link DocletPrologWriter} writes every fact to a {@code .pl} file, while {@link BinaryFactStoreWriter}
+ * only stores the type facts and ignores the others. Nothing is guaranteed to be persisted before {@link #finish()}
+ * has returned.
+ *
+ * @see PrologVisitor
+ */
+public interface FactSink {
+
+    /**
+     * Tells if this sink keeps Javadoc comments. The visitor only collects them if at least one sink does.
+     *
+     * @return {@code true} if the comments are kept, {@code false} if they are stripped from the facts.
+     */
+    boolean isOutputCommentary();
+
+    /**
+     * Receives an index fact, e.g. the package index or a reverse index.
+     *
+     * @param indexFact The top-level fact for the index.
+     * @param indexType The name of the index.
+     * @throws IOException If the index cannot be written.
+     */
+    void writeIndexFile(Fact indexFact, String indexType) throws IOException;
+
+    /**
+     * Receives the fact of a module.
+     *
+     * @param moduleName The name of the module.
+     * @param moduleFact The fact representing the module's declaration and contents.
+     */
+    void writeModuleSummaryFile(String moduleName, Fact moduleFact);
+
+    /**
+     * Receives the fact of a package.
+     *
+     * @param packageName The fully qualified name of the package.
+     * @param packageFact The fact representing the package's declaration.
+     */
+    void writePackageSummaryFile(String packageName, Fact packageFact);
+
+    /**
+     * Receives the transitive supertypes and inherited members of the types of a package.
+     *
+     * @param packageName   The fully qualified name of the package.
+     * @param hierarchyFact The {@code package_hierarchy} fact of the package.
+     */
+    void writePackageHierarchyFile(String packageName, Fact hierarchyFact);
+
+    /**
+     * Receives the fact of a type.
+     *
+     * @param packageName         The fully qualified name of the package containing the type.
+     * @param fileName            The name of the type's file without extension, unique within the package: the
+     *                            simple name of the type, or for a nested type whose simple name is taken, its name
+     *                            relative to the package, e.g. {@code B.Builder}.
+     * @param qualifiedName       The fully qualified name of the type, which for a nested type includes the names of
+     *                            its enclosing types.
+     * @param typeDeclarationFact The fact representing the type's declaration and members.
+     */
+    void writeTypeFile(String packageName, String fileName, String qualifiedName, Fact typeDeclarationFact);
+
+    /**
+     * Persists everything received that is not persisted yet and reports failures.
+     *
+     * @throws IOException If the output cannot be written.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Returns where this sink writes to.
+     *
+     * @return The output directory or file.
+     */
+    Path getOutputPath();
+
+    /**
+     * Returns the number of files written.
+     *
+     * @return The number of files written.
+     */
+    int getWrittenFileCount();
+
+    /**
+     * Returns the number of files left untouched because their content did not change.
+     *
+     * @return The number of skipped files, 0 unless the sink writes incrementally.
+     */
+    default int getSkippedFileCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of facts received more than once for the same file or key.
+     *
+     * @return The number of duplicates.
+     */
+    int getDuplicateFileCount();
+
+    /**
+     * Returns the number of bytes written.
+     *
+     * @return The number of bytes written.
+     */
+    long getWrittenByteCount();
+
+    /**
+     * Returns the time spent rendering or encoding the facts, summed over all threads.
+     *
+     * @return The rendering time in nanoseconds.
+     */
+    long getRenderNanos();
+
+    /**
+     * Returns the time spent writing, summed over all threads.
+     *
+     * @return The writing time in nanoseconds.
+     */
+    long getWriteNanos();
+
+    /**
+     * Returns the number of directory creations avoided by remembering the directories already created.
+     *
+     * @return The number of saved directory creations, 0 unless the sink writes a directory tree.
+     */
+    default long getSavedDirectoryCreationCount() {
+        return 0;
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.grimch.doclet.prolog;
 
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * A utility class for pretty-printing Prolog {@link Fact} objects.
@@ -46,36 +47,56 @@ public class PrettyPrinter {
      */
     public String prettyPrint(Fact fact) {
         StringBuilder sb = new StringBuilder();
-        printFact(sb, fact, 0, true);
+        try {
+            prettyPrint(fact, sb);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
         return sb.toString();
     }
 
     /**
-     * Recursively prints a {@link Fact} to the StringBuilder with appropriate indentation.
+     * Pretty-prints a Prolog {@link Fact} directly into the given {@link Appendable}, following the
+     * same formatting rules as {@link #prettyPrint(Fact)} without building the result as a string first.
+     *
+     * @param fact The {@link Fact} to pretty-print.
+     * @param out  The target to write to, typically a buffered {@link java.io.Writer}.
+     * @throws IOException If writing to the target fails.
+     */
+    public void prettyPrint(Fact fact, Appendable out) throws IOException {
+        printFact(out, fact, 0, true);
+    }
+
+    /**
+     * Recursively prints a {@link Fact} to the target with appropriate indentation.
      *
-     * @param sb The StringBuilder to append the formatted output to.
+     * @param sb The target to append the formatted output to.
      * @param fact The {@link Fact} to print.
      * @param indentLevel The current level of indentation.
      * @param isTopLevel A flag indicating if this is the top-level fact being printed.
      */
-    private void printFact(StringBuilder sb, Fact fact, int indentLevel, boolean isTopLevel) {
+    private void printFact(Appendable sb, Fact fact, int indentLevel, boolean isTopLevel) throws IOException {
         sb.append(fact.getPredicate()).append("(");
 
         boolean isSimpleFact = isSimple(fact);
 
         if (isSimpleFact) {
             // Print simple facts on a single line
-            sb.append(fact.getArguments().stream()
-                    .map(Term::toString) // Use Term's toString for simple representation
-                    .collect(Collectors.joining(", ")));
+            for (int i = 0; i < fact.getArgumentCount(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                fact.getArgument(i).appendTo(sb);
+            }
         } else {
             // Print complex facts on multiple lines with indentation
             sb.append("\n");
-            for (int i = 0; i < fact.getArguments().size(); i++) {
-                Term arg = fact.getArguments().get(i);
+            for (int i = 0; i < fact.getArgumentCount(); i++) {
+                Term arg = fact.getArgument(i);
                 appendIndentation(sb, indentLevel + 1);
                 printTerm(sb, arg, indentLevel + 1);
-                if (i < fact.getArguments().size() - 1) {
+                if (i < fact.getArgumentCount() - 1) {
                     sb.append(",");
                 }
                 sb.append("\n");
@@ -90,44 +111,47 @@ public class PrettyPrinter {
 
     /**
      * Prints a {@link Term} (which can be an {@link Atom}, {@link Fact}, or {@link PrologList})
-     * to the StringBuilder with appropriate indentation.
+     * to the target with appropriate indentation.
      *
-     * @param sb The StringBuilder to append the formatted output to.
+     * @param sb The target to append the formatted output to.
      * @param term The {@link Term} to print.
      * @param indentLevel The current level of indentation.
      */
-    private void printTerm(StringBuilder sb, Term term, int indentLevel) {
+    private void printTerm(Appendable sb, Term term, int indentLevel) throws IOException {
         if (term instanceof Fact) {
             printFact(sb, (Fact) term, indentLevel, false); // Nested facts are not top-level
         } else if (term instanceof PrologList) {
             printPrologList(sb, (PrologList) term, indentLevel);
         } else { // Atom
-            sb.append(term.toString());
+            term.appendTo(sb);
         }
     }
 
     /**
-     * Prints a {@link PrologList} to the StringBuilder with appropriate indentation.
+     * Prints a {@link PrologList} to the target with appropriate indentation.
      *
-     * @param sb The StringBuilder to append the formatted output to.
+     * @param sb The target to append the formatted output to.
      * @param list The {@link PrologList} to print.
      * @param indentLevel The current level of indentation.
      */
-    private void printPrologList(StringBuilder sb, PrologList list, int indentLevel) {
+    private void printPrologList(Appendable sb, PrologList list, int indentLevel) throws IOException {
         sb.append("[");
         boolean isSimpleList = isSimple(list);
 
         if (isSimpleList) {
-            sb.append(list.getElements().stream()
-                    .map(Term::toString)
-                    .collect(Collectors.joining(", ")));
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                list.get(i).appendTo(sb);
+            }
         } else {
             sb.append("\n");
-            for (int i = 0; i < list.getElements().size(); i++) {
-                Term element = list.getElements().get(i);
+            for (int i = 0; i < list.size(); i++) {
+                Term element = list.get(i);
                 appendIndentation(sb, indentLevel + 1);
                 printTerm(sb, element, indentLevel + 1);
-                if (i < list.getElements().size() - 1) {
+                if (i < list.size() - 1) {
                     sb.append(",");
                 }
                 sb.append("\n");
@@ -146,11 +170,9 @@ public class PrettyPrinter {
      * @return {@code true} if the fact is simple, {@code false} otherwise.
      */
     private boolean isSimple(Fact fact) {
-        if (fact.getArguments().isEmpty()) {
-            return true;
-        }
-        for (Term arg : fact.getArguments()) {
-            if (arg instanceof Fact || (arg instanceof PrologList && !((PrologList) arg).getElements().isEmpty())) {
+        for (int i = 0; i < fact.getArgumentCount(); i++) {
+            Term arg = fact.getArgument(i);
+            if (arg instanceof Fact || (arg instanceof PrologList && !((PrologList) arg).isEmpty())) {
                 return false;
             }
         }
@@ -165,11 +187,8 @@ public class PrettyPrinter {
      * @return {@code true} if the list is simple, {@code false} otherwise.
      */
     private boolean isSimple(PrologList list) {
-        if (list.getElements().isEmpty()) {
-            return true;
-        }
-        for (Term element : list.getElements()) {
-            if (!(element instanceof Atom)) {
+        for (int i = 0; i < list.size(); i++) {
+            if (!(list.get(i) instanceof Atom)) {
                 return false;
             }
         }
@@ -177,12 +196,12 @@ public class PrettyPrinter {
     }
 
     /**
-     * Appends the appropriate level of indentation to the StringBuilder.
+     * Appends the appropriate level of indentation to the target.
      *
-     * @param sb The StringBuilder to append to.
+     * @param sb The target to append to.
      * @param level The number of indentation levels.
      */
-    private void appendIndentation(StringBuilder sb, int level) {
+    private void appendIndentation(Appendable sb, int level) throws IOException {
         for (int i = 0; i < level; i++) {
             sb.append(indent);
         }
@@ -0,0 +1,223 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A zip archive (which may also be named {@code .jar}) collecting the Prolog files of one or more
+ * {@link DocletPrologWriter}s in a single sequential stream.
+ * <p>
+ * Every file becomes an entry named by its path relative to the archive's root directory, so the archive has the
+ * same layout as the output written as individual files, e.g. {@code full/java/util/List.pl}. When the archive is
+ * closed, an index entry {@value #INDEX_ENTRY_NAME} is appended that lists every entry, sorted by name, as
+ * {@code archive_entry(Name, Offset, Size)}: the byte offset of the entry's local header in the archive and its
+ * uncompressed size. Consumers can seek to an entry without reading the central directory.
+ * <p>
+ * Entries are added by the writer threads in the order in which they complete. To make the archive independent of
+ * that order, their content is first appended to a temporary spool file next to the archive, and copied into the
+ * archive sorted by name when it is closed, all with the same time stamp, so that equal output gives an archive with
+ * equal bytes. Only the name, spool offset and size of every entry are kept in memory; the spool file takes as much
+ * disk space as the uncompressed output until the archive is closed, and is then deleted.
+ */
+public class PrologArchive implements Closeable {
+    /**
+     * The name of the index entry, which is the last entry of the archive.
+     */
+    public static final String INDEX_ENTRY_NAME = "archive_index.pl";
+
+    /**
+     * The time stamp of every entry, the earliest a zip file can hold.
+     */
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 1, 1, 0, 0);
+
+    private final Path root;
+    private final CountingOutputStream counter;
+    private final ZipOutputStream zip;
+    private final FileChannel spool;
+    private final Map<String, SpooledEntry> entries = new TreeMap<>();
+    private long spoolSize;
+    private boolean closed;
+
+    /**
+     * Creates the archive file, replacing an existing one, and its spool file.
+     *
+     * @param archiveFile The archive file.
+     * @param root        The directory the entry names are relative to, typically the root output directory.
+     * @throws IOException If the files cannot be created.
+     */
+    public PrologArchive(Path archiveFile, Path root) throws IOException {
+        this.root = root;
+        Path parent = archiveFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        this.spool = FileChannel.open(Files.createTempFile(parent, archiveFile.getFileName().toString(), ".spool"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        try {
+            this.counter = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(archiveFile), 64 * 1024));
+        } catch (IOException e) {
+            spool.close();
+            throw e;
+        }
+        this.zip = new ZipOutputStream(counter);
+    }
+
+    /**
+     * Adds a file to the archive. Its content is appended to the spool file; the entry is written when the archive
+     * is closed. A file added twice keeps its last content.
+     * <p>
+     * Only reserving the range of the spool file is synchronized, so the writer threads copy their content
+     * concurrently.
+     *
+     * @param file    The path the file would have if it was written to the file system.
+     * @param content The content of the file, which is consumed.
+     * @throws IOException If the archive is already closed or the spool file cannot be written.
+     */
+    public void write(Path file, ByteBuffer content) throws IOException {
+        String name = root.relativize(file).toString().replace('\\', '/');
+        SpooledEntry entry;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Archive already closed: " + name);
+            }
+            entry = new SpooledEntry(spoolSize, content.remaining());
+            spoolSize += entry.size;
+            entries.put(name, entry);
+        }
+        long position = entry.offset;
+        while (content.hasRemaining()) {
+            position += spool.write(content, position);
+        }
+    }
+
+    /**
+     * Returns the number of entries added so far, not counting the index entry.
+     *
+     * @return The number of entries.
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Copies the entries from the spool file sorted by name, appends the index entry, completes the archive and
+     * deletes the spool file. Must be called once all files have been added.
+     *
+     * @throws IOException If writing the archive fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        StringBuilder index = new StringBuilder();
+        try (spool; zip) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            for (Map.Entry<String, SpooledEntry> entry : entries.entrySet()) {
+                long offset = counter.count;
+                putEntry(entry.getKey());
+                copyFromSpool(entry.getValue(), buffer);
+                // Closing the entry flushes its data, so the count is the offset of the next entry's header
+                zip.closeEntry();
+                index.append(new Fact("archive_entry", new Atom(entry.getKey()), new PrologInteger(offset),
+                                new PrologInteger(entry.getValue().size)))
+                        .append('.').append(System.lineSeparator());
+            }
+            putEntry(INDEX_ENTRY_NAME);
+            zip.write(index.toString().getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+
+    private void putEntry(String name) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTimeLocal(ENTRY_TIME);
+        zip.putNextEntry(entry);
+    }
+
+    private void copyFromSpool(SpooledEntry entry, ByteBuffer buffer) throws IOException {
+        long position = entry.offset;
+        long end = entry.offset + entry.size;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            int read = spool.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Spool file truncated at " + position);
+            }
+            zip.write(buffer.array(), 0, read);
+            position += read;
+        }
+    }
+
+    /**
+     * The range of the spool file holding the content of an entry.
+     */
+    private static final class SpooledEntry {
+        private final long offset;
+        private final int size;
+
+        SpooledEntry(long offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Counts the bytes written to the archive file, to tell the offset of each entry.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.io.IOException;
+
+/**
+ * Represents a Prolog integer.
+ * <p>
+ * The facts describing the code base render literal values as atoms; this term is used where a value is
+ * meant to be compared or summed in Prolog, such as the figures in {@code generation_stats.pl}.
+ *
+ * @see Term
+ */
+public class PrologInteger extends Term {
+    private final long value;
+
+    /**
+     * Constructs a new integer term.
+     *
+     * @param value The value of the integer.
+     */
+    public PrologInteger(long value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the value of this integer.
+     *
+     * @return The value.
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Writes the decimal representation of this integer, prefixed with a minus sign if it is negative.
+     *
+     * @param out The target to write to.
+     * @throws IOException If writing to the target fails.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        out.append(Long.toString(value));
+    }
+}
@@ -23,8 +23,10 @@
  */
 package io.github.grimch.doclet.prolog;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Represents a Prolog list, which is an ordered collection of terms.
@@ -32,38 +34,160 @@ import java.util.stream.Collectors;
  * A Prolog list is denoted by square brackets {@code []} with its elements separated by commas.
  * For example, {@code [apple, banana, orange]} is a list of three atoms.
  * Lists can contain other terms, including other lists.
+ * <p>
+ * Lists are immutable: the elements are copied into an array of the exact size when the list is created.
+ * Use {@link #of(List)} to share the {@link #EMPTY} list instead of creating a new empty one.
  *
  * @see Term
  */
 public class PrologList extends Term {
+    /**
+     * The empty list, {@code []}.
+     */
+    public static final PrologList EMPTY = new PrologList(new Term[0]);
+
+    /**
+     * Returns the elements of this list.
+     *
+     * @return An unmodifiable view of the elements.
+     */
     public List<Term> getElements() {
-        return elements;
+        return Collections.unmodifiableList(Arrays.asList(elements));
     }
 
-    private final List<Term> elements;
+    /**
+     * Returns the number of elements of this list.
+     *
+     * @return The size of the list.
+     */
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * Tells if this list has no elements.
+     *
+     * @return {@code true} for the empty list.
+     */
+    public boolean isEmpty() {
+        return elements.length == 0;
+    }
+
+    /**
+     * Returns an element of this list.
+     *
+     * @param index The zero-based index of the element.
+     * @return The element.
+     */
+    public Term get(int index) {
+        return elements[index];
+    }
+
+    private final Term[] elements;
+    /**
+     * The rendering of this list, if it was computed up front, otherwise {@code null}.
+     */
+    private final String rendered;
 
     /**
      * Constructs a new Prolog list from a Java {@link List} of {@link Term}s.
      *
-     * @param elements The list of terms that will form the elements of the Prolog list.
+     * @param elements The list of terms that will form the elements of the Prolog list. It is copied, so it may
+     *                 be reused afterwards.
      */
-    public PrologList(List<Term> elements) {
+    public PrologList(List<? extends Term> elements) {
+        this(elements.toArray(new Term[0]));
+    }
+
+    private PrologList(Term[] elements) {
         this.elements = elements;
+        this.rendered = null;
+    }
+
+    private PrologList(PrologList list, String rendered) {
+        this.elements = list.elements;
+        this.rendered = rendered;
+    }
+
+    /**
+     * Returns a Prolog list of the given terms, or the shared {@link #EMPTY} list if there are none.
+     *
+     * @param elements The list of terms that will form the elements of the Prolog list. It is copied, so it may
+     *                 be reused afterwards.
+     * @return The Prolog list.
+     */
+    public static PrologList of(List<? extends Term> elements) {
+        return elements.isEmpty() ? EMPTY : new PrologList(elements);
+    }
+
+    /**
+     * Returns a Prolog list backed by the given array, or the shared {@link #EMPTY} list if it is empty.
+     *
+     * @param elements The elements, which are not copied and must not be modified afterwards.
+     * @return The Prolog list.
+     */
+    static PrologList wrap(Term[] elements) {
+        return elements.length == 0 ? EMPTY : new PrologList(elements);
     }
 
     /**
-     * Generates the string representation of the Prolog list.
+     * Returns an equivalent list that carries its rendering, computed once by this call.
      * <p>
-     * The output is a string in the format {@code [elem1, elem2, ...]}, where each element
-     * is recursively converted to its own string representation.
+     * This is meant for lists shared by many facts, such as modifier lists: every later
+     * {@link #appendTo(Appendable)} just copies the pre-rendered text.
+     *
+     * @param list The list to render.
+     * @return A list with the same elements and a pre-rendered representation, or the list itself if it is
+     * already pre-rendered or empty.
+     */
+    public static PrologList prerendered(PrologList list) {
+        return list.rendered != null || list.isEmpty() ? list : new PrologList(list, list.toString());
+    }
+
+    /**
+     * Writes the Prolog representation of the list.
+     * <p>
+     * The output is in the format {@code [elem1, elem2, ...]}, where each element
+     * is recursively written to the same target. A {@link #prerendered(PrologList) pre-rendered} list
+     * writes its stored text instead.
+     *
+     * @param out The target to write to.
+     * @throws IOException If writing to the target fails.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        if (rendered != null) {
+            out.append(rendered);
+            return;
+        }
+        out.append('[');
+        for (int i = 0; i < elements.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            elements[i].appendTo(out);
+        }
+        out.append(']');
+    }
+
+    /**
+     * Returns this list with all nested {@link DocComment}s replaced by empty comments.
      *
-     * @return A string representing the list in valid Prolog syntax.
+     * @return This list if none of its elements changed, otherwise a new list with the stripped elements.
      */
     @Override
-    public String toString() {
-        String elems = elements.stream()
-                .map(Term::toString)
-                .collect(Collectors.joining(", "));
-        return "[" + elems + "]";
+    public PrologList stripDocComments() {
+        Term[] stripped = null;
+        for (int i = 0; i < elements.length; i++) {
+            Term element = elements[i];
+            Term strippedElement = element.stripDocComments();
+            if (strippedElement != element && stripped == null) {
+                stripped = elements.clone();
+            }
+            if (stripped != null) {
+                stripped[i] = strippedElement;
+            }
+        }
+        return stripped == null ? this : new PrologList(stripped);
     }
 }
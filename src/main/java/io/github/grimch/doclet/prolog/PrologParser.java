@@ -0,0 +1,373 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads Prolog facts as written by {@link DocletPrologWriter} back into {@link Fact}s, {@link Atom}s,
+ * {@link PrologList}s and {@link PrologInteger}s.
+ * <p>
+ * The parser covers the subset of Prolog that {@link Term#toString()} and {@link PrettyPrinter} produce: compound
+ * terms, lists, unquoted and single-quoted atoms, in which a doubled quote stands for a single one and every other
+ * character, including a backslash, is taken literally, and integers. Layout between tokens, {@code %} line comments
+ * and {@code /* *}{@code /} block comments are skipped, and double-quoted text is read as an atom, so that
+ * hand-written files such as {@code java_metastructure.pl} can be read as well.
+ * <p>
+ * Facts are read one at a time from a buffered {@link Reader}, so files of any size can be streamed. Tokens are
+ * scanned in place in the read buffer, arguments are collected on a single reused stack, and atoms are shared
+ * through an {@link AtomPool}, which may be shared by the parsers of several files. The doc comments of the full
+ * output are read as plain atoms, since the text does not tell them apart.
+ * <p>
+ * A parser is not thread-safe.
+ *
+ * @see DocletPrologWriter
+ */
+public class PrologParser implements Closeable {
+    private final Reader reader;
+    private final AtomPool atoms;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int line = 1;
+    private final StringBuilder text = new StringBuilder();
+    private Term[] stack = new Term[64];
+    private int stackSize;
+
+    /**
+     * Constructs a parser reading from the given reader.
+     *
+     * @param reader The source of the facts, which is closed with the parser.
+     */
+    public PrologParser(Reader reader) {
+        this(reader, new AtomPool());
+    }
+
+    /**
+     * Constructs a parser reading from the given reader and sharing atoms through the given pool.
+     *
+     * @param reader The source of the facts, which is closed with the parser.
+     * @param atoms  The pool the atoms are interned in.
+     */
+    public PrologParser(Reader reader, AtomPool atoms) {
+        this.reader = reader;
+        this.atoms = atoms;
+    }
+
+    /**
+     * Reads all facts of a UTF-8 encoded file.
+     *
+     * @param file The file to read.
+     * @return The facts, in the order of the file.
+     * @throws IOException If the file cannot be read or contains a syntax error.
+     */
+    public static List<Fact> parse(Path file) throws IOException {
+        try (PrologParser parser = new PrologParser(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            return parser.readAll();
+        }
+    }
+
+    /**
+     * Reads all remaining facts.
+     *
+     * @return The facts, in the order of the source.
+     * @throws IOException If reading fails or the source contains a syntax error.
+     */
+    public List<Fact> readAll() throws IOException {
+        List<Fact> facts = new ArrayList<>();
+        for (Fact fact = next(); fact != null; fact = next()) {
+            facts.add(fact);
+        }
+        return facts;
+    }
+
+    /**
+     * Reads the next fact.
+     *
+     * @return The fact, or {@code null} at the end of the source.
+     * @throws IOException If reading fails or the source contains a syntax error.
+     */
+    public Fact next() throws IOException {
+        if (skipLayout() < 0) {
+            return null;
+        }
+        Term term = parseTerm();
+        if (!(term instanceof Fact)) {
+            throw syntaxError("Expected a fact, found " + term);
+        }
+        if (skipLayout() != '.') {
+            throw syntaxError("Expected '.' after fact " + ((Fact) term).getPredicate());
+        }
+        position++;
+        return (Fact) term;
+    }
+
+    /**
+     * Returns the line the parser has reached, counting from one.
+     *
+     * @return The current line number.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Closes the underlying reader.
+     *
+     * @throws IOException If closing the reader fails.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Parses a term starting at the next non-layout character.
+     */
+    private Term parseTerm() throws IOException {
+        int c = skipLayout();
+        if (c == '[') {
+            position++;
+            return PrologList.wrap(parseArguments(']'));
+        }
+        String name;
+        if (c == '\'' || c == '"') {
+            position++;
+            name = quoted((char) c);
+        } else if (c == '-' || isDigit(c)) {
+            return parseInteger();
+        } else if (c >= 'a' && c <= 'z') {
+            name = unquoted();
+        } else {
+            throw syntaxError(c < 0 ? "Unexpected end of input" : "Unexpected character '" + (char) c + "'");
+        }
+        if (peek() == '(') {
+            position++;
+            return new Fact(atoms.intern(name).getValue(), parseArguments(')'));
+        }
+        return atoms.intern(name);
+    }
+
+    /**
+     * Parses comma separated terms up to the closing bracket, the opening one having been consumed.
+     */
+    private Term[] parseArguments(char close) throws IOException {
+        int base = stackSize;
+        if (skipLayout() == close) {
+            position++;
+            return new Term[0];
+        }
+        while (true) {
+            Term term = parseTerm();
+            if (stackSize == stack.length) {
+                stack = Arrays.copyOf(stack, stackSize * 2);
+            }
+            stack[stackSize++] = term;
+            int c = skipLayout();
+            position++;
+            if (c == close) {
+                break;
+            } else if (c != ',') {
+                throw syntaxError(c < 0 ? "Unexpected end of input" : "Expected ',' or '" + close + "', found '" + (char) c + "'");
+            }
+        }
+        Term[] terms = Arrays.copyOfRange(stack, base, stackSize);
+        Arrays.fill(stack, base, stackSize, null);
+        stackSize = base;
+        return terms;
+    }
+
+    /**
+     * Reads an unquoted atom made of letters, digits and underscores.
+     */
+    private String unquoted() throws IOException {
+        text.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                return text.toString();
+            }
+            int start = position;
+            while (position < limit && isAlphanumeric(buffer[position])) {
+                position++;
+            }
+            text.append(buffer, start, position - start);
+            if (position < limit) {
+                return text.toString();
+            }
+        }
+    }
+
+    /**
+     * Reads the text of a quoted atom up to its closing quote, the opening one having been consumed.
+     */
+    private String quoted(char quote) throws IOException {
+        text.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                throw syntaxError("Unterminated quoted atom");
+            }
+            int start = position;
+            while (position < limit && buffer[position] != quote) {
+                if (buffer[position] == '\n') {
+                    line++;
+                }
+                position++;
+            }
+            text.append(buffer, start, position - start);
+            if (position < limit) {
+                position++;
+                if (peek() != quote) {
+                    return text.toString();
+                }
+                // A doubled quote stands for the quote itself
+                text.append(quote);
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Reads an optionally negative decimal integer.
+     */
+    private PrologInteger parseInteger() throws IOException {
+        boolean negative = peek() == '-';
+        if (negative) {
+            position++;
+        }
+        if (!isDigit(peek())) {
+            throw syntaxError("Expected a digit");
+        }
+        long value = 0;
+        for (int c = peek(); isDigit(c); c = peek()) {
+            value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+            position++;
+        }
+        return new PrologInteger(negative ? -value : value);
+    }
+
+    /**
+     * Skips whitespace and comments.
+     *
+     * @return The next character, which is not consumed, or -1 at the end of the source.
+     */
+    private int skipLayout() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == '\n') {
+                line++;
+                position++;
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\f') {
+                position++;
+            } else if (c == '%') {
+                for (c = peek(); c >= 0 && c != '\n'; c = peek()) {
+                    position++;
+                }
+            } else if (c == '/' && peekNext() == '*') {
+                position += 2;
+                for (c = peek(); !(c == '*' && peekNext() == '/'); c = peek()) {
+                    if (c < 0) {
+                        throw syntaxError("Unterminated block comment");
+                    }
+                    if (c == '\n') {
+                        line++;
+                    }
+                    position++;
+                }
+                position += 2;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    /**
+     * Returns the next character without consuming it, refilling the buffer if needed.
+     *
+     * @return The character, or -1 at the end of the source.
+     */
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Returns the character after the next one without consuming either, keeping the next one in the buffer.
+     */
+    private int peekNext() throws IOException {
+        if (position + 1 >= limit) {
+            if (peek() < 0) {
+                return -1;
+            }
+            if (position + 1 < limit) {
+                return buffer[position + 1];
+            }
+            // Move the remaining character to the start of the buffer to make room
+            buffer[0] = buffer[position];
+            position = 0;
+            int read = reader.read(buffer, 1, buffer.length - 1);
+            limit = read < 0 ? 1 : read + 1;
+            if (read < 0) {
+                return -1;
+            }
+        }
+        return buffer[position + 1];
+    }
+
+    /**
+     * Reads the next chunk of the source into the buffer, once the buffer has been consumed.
+     *
+     * @return {@code false} at the end of the source.
+     */
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Syntax error at line " + line + ": " + message);
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+}
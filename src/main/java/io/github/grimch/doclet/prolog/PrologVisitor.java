@@ -47,8 +47,18 @@ import static javax.lang.model.element.ElementKind.*;
  * it constructs a {@code Fact} that represents the element's properties and relationships
  * in a structured, machine-readable format.
  * <p>
- * The visitor collaborates with a {@link DocletPrologWriter} to persist the generated facts
- * to the file system, creating a Prolog representation of the entire codebase.
+ * The visitor collaborates with one or more {@link DocletPrologWriter}s to persist the generated facts
+ * to the file system, creating a Prolog representation of the entire codebase. Each element is converted
+ * only once, including its Javadoc comment if any writer asks for it; writers that do not output commentary
+ * derive their facts from the same terms by stripping the comments.
+ * <p>
+ * Types are reached both through their package and as included elements of the javadoc run. The visitor keeps
+ * track of the modules, packages and types it has visited, so that each of them is converted and written once.
+ * All atoms are taken from a per-run {@link AtomPool}, so recurring names are shared by all facts.
+ * <p>
+ * While visiting, the reverse edges of the type hierarchy and of annotation usages are collected in a
+ * {@link ReverseIndex}, written as index files once the traversal is complete. The visited types are also kept
+ * per package, from which the {@link TypeHierarchy} facts are built afterwards.
  *
  * @see SimpleElementVisitor9
  * @see DocletPrologWriter
@@ -56,7 +66,7 @@ import static javax.lang.model.element.ElementKind.*;
  */
 public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
 
-    private final DocletPrologWriter writer;
+    private final List<FactSink> writers;
     private final DocletEnvironment docEnv;
     private final Reporter reporter;
     private final boolean outputCommentary;
@@ -66,26 +76,66 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
     private List<Fact> packageMembers = null;
     private List<Fact> typeMembers = null;
     private final Types typeUtils;
+    private final TypeTermVisitor typeTermVisitor = new TypeTermVisitor();
+    private final Map<Element, Term> declaredTypeTermCache = new HashMap<>();
+    private final Map<String, Term> typeTermCache = new HashMap<>();
+    private final Map<Long, PrologList> modifierListCache = new HashMap<>();
+    private final Set<Element> visitedElements = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final AtomPool atoms = new AtomPool();
+    private final ReverseIndex reverseIndex = new ReverseIndex(atoms);
+    private final Map<String, List<TypeElement>> packageTypes = new TreeMap<>();
+    private final Map<String, Set<String>> typeFileNames = new HashMap<>();
+    private long visitedElementCount;
+    private long factCount;
+    private long termBuildingNanos;
+    private long schedulingNanos;
 
     /**
      * Constructs a new PrologVisitor.
      *
-     * @param writer           The writer responsible for outputting the generated Prolog facts.
-     * @param docEnv           The {@link DocletEnvironment} providing access to the source code elements.
-     * @param reporter         The {@link Reporter} for logging messages and errors.
-     * @param outputCommentary A boolean flag indicating whether to include Javadoc comments in the output.
+     * @param writers  The sinks responsible for outputting the generated Prolog facts, e.g. {@link DocletPrologWriter}s.
+     *                 Javadoc comments are only collected if at least one of them outputs commentary.
+     * @param docEnv   The {@link DocletEnvironment} providing access to the source code elements.
+     * @param reporter The {@link Reporter} for logging messages and errors.
      */
-    public PrologVisitor(DocletPrologWriter writer, DocletEnvironment docEnv, Reporter reporter, boolean outputCommentary) {
-        this.writer = writer;
+    public PrologVisitor(List<? extends FactSink> writers, DocletEnvironment docEnv, Reporter reporter) {
+        this.writers = List.copyOf(writers);
         this.docEnv = docEnv;
         this.reporter = reporter;
-        this.outputCommentary = outputCommentary;
+        this.outputCommentary = writers.stream().anyMatch(FactSink::isOutputCommentary);
         this.typeUtils = docEnv.getTypeUtils();
     }
 
+    /**
+     * Returns the name of the file of a type, without extension. Types are named after their simple name, unless a
+     * nested type shares it with a top level type or an earlier nested type of its package: it is then named after
+     * its name relative to the package, e.g. {@code B.Builder} next to {@code Builder} for {@code A.Builder}. Names
+     * are handed out here on the traversing thread, so they do not depend on the order in which files are written.
+     *
+     * @param e                 The type.
+     * @param packageName       The fully qualified name of its package.
+     * @param qualifiedTypeName The fully qualified name of the type.
+     * @return The file name, unique within the package.
+     */
+    private String typeFileName(TypeElement e, String packageName, String qualifiedTypeName) {
+        String typeName = e.getSimpleName().toString();
+        if (!(e.getEnclosingElement() instanceof TypeElement)) {
+            return typeName;
+        }
+        Set<String> taken = typeFileNames.computeIfAbsent(packageName, name ->
+                docEnv.getElementUtils().getPackageOf(e).getEnclosedElements().stream()
+                        .map(type -> type.getSimpleName().toString())
+                        .collect(Collectors.toCollection(HashSet::new)));
+        if (taken.add(typeName)) {
+            return typeName;
+        }
+        return packageName.isEmpty() ? qualifiedTypeName : qualifiedTypeName.substring(packageName.length() + 1);
+    }
+
     /**
      * Visits a {@link ModuleElement} to generate Prolog facts about a Java module.
      * It captures the module's name, directives (requires, exports, uses, provides), and contained packages.
+     * A module that has already been visited is skipped.
      *
      * @param e The module element to visit.
      * @param p A visitor-specified parameter (unused).
@@ -93,6 +143,11 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      */
     @Override
     public Void visitModule(ModuleElement e, Void p) {
+        if (!visitedElements.add(e)) {
+            return null;
+        }
+        visitedElementCount++;
+        long start = System.nanoTime();
         String moduleName = e.getQualifiedName().toString();
         List<Term> requires = e.getDirectives().stream()
                 .filter(d -> d.getKind() == ModuleElement.DirectiveKind.REQUIRES)
@@ -119,20 +174,25 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
 
         List<Term> allPackages = e.getEnclosedElements().stream()
                 .filter(element -> element.getKind() == PACKAGE)
-                .map(element -> new Atom(((PackageElement) element).getQualifiedName().toString()))
+                .map(element -> atoms.intern(((PackageElement) element).getQualifiedName().toString()))
                 .collect(Collectors.toList());
 
-        Atom moduleNameAtom = new Atom(moduleName);
+        Atom moduleNameAtom = atoms.intern(moduleName);
         Fact moduleFact = new Fact("module",
                 moduleNameAtom,
                 toPrologModifierList(e.getModifiers()),
-                new PrologList(requires),
-                new PrologList(exports),
-                new PrologList(uses),
-                new PrologList(provides),
-                new PrologList(allPackages) // New argument: all_packages
+                PrologList.of(requires),
+                PrologList.of(exports),
+                PrologList.of(uses),
+                PrologList.of(provides),
+                PrologList.of(allPackages) // New argument: all_packages
         );
-        writer.writeModuleSummaryFile(moduleName, moduleFact);
+        termBuilt(start);
+        long scheduling = System.nanoTime();
+        for (FactSink writer : writers) {
+            writer.writeModuleSummaryFile(moduleName, moduleFact);
+        }
+        schedulingNanos += System.nanoTime() - scheduling;
         indexModuleList.add(moduleNameAtom);
         return null;
     }
@@ -140,6 +200,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
     /**
      * Visits a {@link PackageElement} to generate Prolog facts about a Java package.
      * It collects all the types within the package and writes a summary file.
+     * A package that has already been visited is skipped.
      *
      * @param e The package element to visit.
      * @param p A visitor-specified parameter (unused).
@@ -147,19 +208,31 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      */
     @Override
     public Void visitPackage(PackageElement e, Void p) {
+        if (!visitedElements.add(e)) {
+            return null;
+        }
+        visitedElementCount++;
         packageMembers = new ArrayList<>();
         String packageName = e.getQualifiedName().toString();
-        // Visit enclosed types
-        e.getEnclosedElements().forEach(element -> element.accept(this, p));
+        // Visit enclosed types in name order, the order of getEnclosedElements() depends on the file system
+        e.getEnclosedElements().stream()
+                .sorted(Comparator.comparing(element -> element.getSimpleName().toString()))
+                .forEach(element -> element.accept(this, p));
 
         // construct and write package
-        Atom packageNameAtom = new Atom(packageName);
+        long start = System.nanoTime();
+        Atom packageNameAtom = atoms.intern(packageName);
         Fact packageFact = new Fact(
            "package_declaration",
                 packageNameAtom,
-                new PrologList(new ArrayList<>(packageMembers))
+                PrologList.of(packageMembers)
         );
-        writer.writePackageSummaryFile(packageName, packageFact);
+        termBuilt(start);
+        long scheduling = System.nanoTime();
+        for (FactSink writer : writers) {
+            writer.writePackageSummaryFile(packageName, packageFact);
+        }
+        schedulingNanos += System.nanoTime() - scheduling;
         if (! internalPackageNames.contains(packageName)) {
             indexPackageList.add(packageNameAtom);
         }
@@ -169,7 +242,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
     /**
      * Visits a {@link TypeElement} to generate Prolog facts for a class, interface, enum, record, or annotation.
      * It recursively visits enclosed members (fields, methods, inner types) and then constructs and writes
-     * a fact representing the type itself.
+     * a fact representing the type itself. A type that has already been visited, e.g. through its package, is skipped.
      *
      * @param e The type element to visit.
      * @param p A visitor-specified parameter (unused).
@@ -177,6 +250,10 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      */
     @Override
     public Void visitType(TypeElement e, Void p) {
+        if (!visitedElements.add(e)) {
+            return null;
+        }
+        visitedElementCount++;
         typeMembers = new ArrayList<>();
 
         String qualifiedTypeName = e.getQualifiedName().toString();
@@ -193,82 +270,83 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
             }
         }
 
+        long start = System.nanoTime();
         switch (e.getKind()) {
             case CLASS:
                 typeFact = new Fact("class",
-                        new Atom(typeName),
-                        new Atom(packageName),
+                        atoms.intern(typeName),
+                        atoms.intern(packageName),
                         toPrologModifierList(e.getModifiers()),
                         toPrologTypeParameterList(e.getTypeParameters()),
                         toPrologExtends(e.getSuperclass()),
                         toPrologImplementsList(e.getInterfaces()),
-                        new PrologList(
+                        PrologList.of(
                             e
                                 .getPermittedSubclasses()
                                 .stream()
-                                .map(t -> new Atom(((TypeElement) typeUtils.asElement(t)).getQualifiedName().toString()))
+                                .map(t -> atoms.intern(((TypeElement) typeUtils.asElement(t)).getQualifiedName().toString()))
                                 .collect(Collectors.toList()
                             )
                         ),
-                        new PrologList(new ArrayList<>(typeMembers)), // Members are collected separately
+                        PrologList.of(typeMembers), // Members are collected separately
                         toPrologAnnotationList(e.getAnnotationMirrors()),
-                        new Atom(getDocComment(e))
+                        getDocComment(e)
                 );
                 break;
             case INTERFACE:
                 typeFact = new Fact("interface",
-                        new Atom(typeName),
-                        new Atom(packageName),
+                        atoms.intern(typeName),
+                        atoms.intern(packageName),
                         toPrologModifierList(e.getModifiers()),
                         toPrologTypeParameterList(e.getTypeParameters()),
                         toPrologImplementsList(e.getInterfaces()), // Interfaces extend other interfaces
-                        new PrologList(new ArrayList<>(typeMembers)),
+                        PrologList.of(typeMembers),
                         toPrologAnnotationList(e.getAnnotationMirrors()),
-                        new PrologList(
+                        PrologList.of(
                             e
                                 .getPermittedSubclasses()
                                 .stream()
-                                .map(t -> new Fact("declared_type", new Atom(((TypeElement) typeUtils.asElement(t)).getQualifiedName().toString()), new PrologList(new ArrayList<>())))
+                                .map(t -> new Fact("declared_type", atoms.intern(((TypeElement) typeUtils.asElement(t)).getQualifiedName().toString()), PrologList.EMPTY))
                                 .collect(Collectors.toList()
                             )
                         ),
-                        new Atom(getDocComment(e))
+                        getDocComment(e)
                 );
                 break;
             case ENUM:
                 typeFact = new Fact("enum",
-                        new Atom(typeName),
-                        new Atom(packageName),
+                        atoms.intern(typeName),
+                        atoms.intern(packageName),
                         toPrologModifierList(e.getModifiers()),
                         toPrologImplementsList(e.getInterfaces()),
-                        new PrologList(new ArrayList<>(typeMembers)),
+                        PrologList.of(typeMembers),
                         toPrologAnnotationList(e.getAnnotationMirrors()),
-                        new Atom(getDocComment(e))
+                        getDocComment(e)
                 );
                 break;
             case ANNOTATION_TYPE:
                 typeFact = new Fact("annotation_type",
-                        new Atom(typeName),
-                        new Atom(packageName),
+                        atoms.intern(typeName),
+                        atoms.intern(packageName),
                         toPrologModifierList(e.getModifiers()),
                         toPrologAnnotationList(e.getAnnotationMirrors()),
-                        new Atom(getDocComment(e))
+                        getDocComment(e)
                 );
                 break;
             case RECORD:
                 typeFact = new Fact("record",
-                        new Atom(typeName),
-                        new Atom(packageName),
+                        atoms.intern(typeName),
+                        atoms.intern(packageName),
                         toPrologModifierList(e.getModifiers()),
                         toPrologTypeParameterList(e.getTypeParameters()),
                         toPrologImplementsList(e.getInterfaces()),
-                        new PrologList(e.getEnclosedElements().stream()
+                        PrologList.of(e.getEnclosedElements().stream()
                                 .filter(el -> el.getKind() == RECORD_COMPONENT)
                                 .map(this::toPrologRecordComponent)
                                 .collect(Collectors.toList())),
-                        new PrologList(new ArrayList<>(typeMembers)),
+                        PrologList.of(typeMembers),
                         toPrologAnnotationList(e.getAnnotationMirrors()),
-                        new Atom(getDocComment(e))
+                        getDocComment(e)
                 );
                 break;
             default:
@@ -277,9 +355,16 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
         }
 
         if (typeFact != null) {
-            packageMembers.add(new Fact("type_declaration", new Atom(typeName), new Atom(e.getKind().toString())));
-            writer.writeTypeFile(packageName, typeName, typeFact);
-
+            addReverseEdges(e, qualifiedTypeName);
+            packageTypes.computeIfAbsent(packageName, k -> new ArrayList<>()).add(e);
+            packageMembers.add(new Fact("type_declaration", atoms.intern(typeName), atoms.intern(e.getKind().toString())));
+            termBuilt(start);
+            long scheduling = System.nanoTime();
+            String fileName = typeFileName(e, packageName, qualifiedTypeName);
+            for (FactSink writer : writers) {
+                writer.writeTypeFile(packageName, fileName, qualifiedTypeName, typeFact);
+            }
+            schedulingNanos += System.nanoTime() - scheduling;
         }
 
         return null;
@@ -294,30 +379,32 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      */
     @Override
     public Void visitExecutable(ExecutableElement e, Void p) {
+        long start = System.nanoTime();
+        visitedElementCount++;
         Fact memberFact = null;
 
         switch (e.getKind()) {
             case METHOD:
                 memberFact = new Fact("method",
-                        new Atom(e.getSimpleName().toString()),
+                        atoms.intern(e.getSimpleName().toString()),
                         toPrologModifierList(e.getModifiers()),
                         toPrologTypeParameterList(e.getTypeParameters()),
                         toPrologType(e.getReturnType()),
                         toPrologParameterList(e.getParameters()),
                         toPrologThrowsList(e.getThrownTypes()),
                         toPrologAnnotationList(e.getAnnotationMirrors()),
-                        new Atom(getDocComment(e))
+                        getDocComment(e)
                 );
                 break;
             case CONSTRUCTOR:
                 memberFact = new Fact("constructor",
-                        new Atom(e.getSimpleName().toString()),
+                        atoms.intern(e.getSimpleName().toString()),
                         toPrologModifierList(e.getModifiers()),
                         toPrologTypeParameterList(e.getTypeParameters()),
                         toPrologParameterList(e.getParameters()),
                         toPrologThrowsList(e.getThrownTypes()),
                         toPrologAnnotationList(e.getAnnotationMirrors()),
-                        new Atom(getDocComment(e))
+                        getDocComment(e)
                 );
                 break;
             default:
@@ -326,7 +413,9 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
         }
 
         if (memberFact != null) {
+            addAnnotationUsages(e);
             typeMembers.add(memberFact);
+            termBuilt(start);
         }
         return null;
     }
@@ -341,16 +430,18 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      */
     @Override
     public Void visitVariable(VariableElement e, Void p) {
+        long start = System.nanoTime();
+        visitedElementCount++;
         Fact memberFact = null;
 
         switch (e.getKind()) {
             case FIELD:
                 memberFact = new Fact("field",
-                        new Atom(e.getSimpleName().toString()),
+                        atoms.intern(e.getSimpleName().toString()),
                         toPrologModifierList(e.getModifiers()),
                         toPrologType(e.asType()),
                         toPrologAnnotationList(e.getAnnotationMirrors()),
-                        new Atom(getDocComment(e))
+                        getDocComment(e)
                 );
                 break;
             case ENUM_CONSTANT:
@@ -366,7 +457,9 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
         }
 
         if (memberFact != null) {
+            addAnnotationUsages(e);
             typeMembers.add(memberFact);
+            termBuilt(start);
         }
         return null;
     }
@@ -378,11 +471,11 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      */
     private Term toPrologRequires(ModuleElement.RequiresDirective r) {
         List<Term> modifiers = r.getDependency().getModifiers().stream()
-                .map(m -> new Atom(m.toString().toLowerCase()))
+                .map(m -> atoms.intern(m.toString().toLowerCase()))
                 .collect(Collectors.toList());
         return new Fact("requires",
-                new PrologList(modifiers),
-                new Atom(r.getDependency().getQualifiedName().toString()),
+                PrologList.of(modifiers),
+                atoms.intern(r.getDependency().getQualifiedName().toString()),
                 toPrologAnnotationList(r.getDependency().getAnnotationMirrors())
         );
     }
@@ -398,13 +491,13 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
                 .stream()
                 .map(m -> {
                     internalPackageNames.add(packageName);
-                    return new Atom(m.getQualifiedName().toString());
+                    return atoms.intern(m.getQualifiedName().toString());
                 })
                 .collect(Collectors.toList());
 
         return new Fact("exports",
-            new Atom(e.getPackage().getQualifiedName().toString()),
-            new PrologList(toModules),
+            atoms.intern(e.getPackage().getQualifiedName().toString()),
+            PrologList.of(toModules),
             toPrologAnnotationList(e.getPackage().getAnnotationMirrors())
         );
     }
@@ -418,7 +511,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
                 .collect(Collectors.toList());
         return new Fact("provides",
                 toPrologType(p.getService().asType()),
-                new PrologList(withImplementations),
+                PrologList.of(withImplementations),
                 toPrologAnnotationList(p.getService().getAnnotationMirrors())
         );
     }
@@ -429,7 +522,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
     private Term toPrologRecordComponent(Element e) {
         RecordComponentElement recordComponent = (RecordComponentElement) e;
         return new Fact("record_component",
-                new Atom(recordComponent.getSimpleName().toString()),
+                atoms.intern(recordComponent.getSimpleName().toString()),
                 toPrologType(recordComponent.asType()),
                 toPrologAnnotationList(recordComponent.getAnnotationMirrors())
         );
@@ -437,18 +530,31 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
 
     /**
      * Converts a set of {@link Modifier}s to a Prolog list of modifier facts.
+     * <p>
+     * Only a few dozen combinations of modifiers occur in practice, so the lists are built and pre-rendered once
+     * per combination, keyed by a bitmask of the modifiers, and shared by all modules, types, members and
+     * parameters.
      */
     private PrologList toPrologModifierList(Set<Modifier> modifiers) {
-        return new PrologList(modifiers.stream()
-                .map(m -> new Fact("modifier", new Atom(m.toString().toLowerCase())))
-                .collect(Collectors.toList()));
+        long mask = 0;
+        for (Modifier modifier : modifiers) {
+            mask |= 1L << modifier.ordinal();
+        }
+        PrologList modifierList = modifierListCache.get(mask);
+        if (modifierList == null) {
+            modifierList = PrologList.prerendered(PrologList.of(modifiers.stream()
+                    .map(m -> Fact.prerendered(new Fact("modifier", atoms.intern(m.toString().toLowerCase()))))
+                    .collect(Collectors.toList())));
+            modifierListCache.put(mask, modifierList);
+        }
+        return modifierList;
     }
 
     /**
      * Converts a list of {@link TypeParameterElement}s to a Prolog list of type parameter facts.
      */
     private PrologList toPrologTypeParameterList(List<? extends TypeParameterElement> typeParameters) {
-        return new PrologList(typeParameters.stream()
+        return PrologList.of(typeParameters.stream()
                 .map(this::toPrologTypeParameter)
                 .collect(Collectors.toList()));
     }
@@ -461,27 +567,87 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
                 .map(this::toPrologType)
                 .collect(Collectors.toList());
         return new Fact("type_parameter",
-                new Atom(e.getSimpleName().toString()),
-                new PrologList(bounds),
+                atoms.intern(e.getSimpleName().toString()),
+                PrologList.of(bounds),
                 toPrologAnnotationList(e.getAnnotationMirrors())
         );
     }
 
+    /**
+     * Records the supertypes, implemented interfaces, annotations and enclosing type of a type in the reverse index.
+     *
+     * @param e                 The type.
+     * @param qualifiedTypeName The qualified name of the type.
+     */
+    private void addReverseEdges(TypeElement e, String qualifiedTypeName) {
+        // Like the extends fact of a class, an implicit java.lang.Object superclass is left out, and the implicit
+        // java.lang.Enum and java.lang.Record superclasses of enums and records are not recorded
+        String superclassName = e.getKind() == CLASS ? qualifiedName(e.getSuperclass()) : null;
+        if (superclassName != null && !superclassName.equals("java.lang.Object")) {
+            reverseIndex.addSubtype(superclassName, qualifiedTypeName);
+        }
+        // Annotation types implicitly extend java.lang.annotation.Annotation, which their fact does not list either
+        List<? extends TypeMirror> interfaces = e.getKind() == ANNOTATION_TYPE ? List.of() : e.getInterfaces();
+        for (TypeMirror iface : interfaces) {
+            String interfaceName = qualifiedName(iface);
+            if (interfaceName == null) {
+                continue;
+            }
+            if (e.getKind() == INTERFACE) {
+                reverseIndex.addSubtype(interfaceName, qualifiedTypeName);
+            } else {
+                reverseIndex.addImplementor(interfaceName, qualifiedTypeName);
+            }
+        }
+        for (AnnotationMirror annotation : e.getAnnotationMirrors()) {
+            reverseIndex.addAnnotationUsage(qualifiedName(annotation.getAnnotationType()), qualifiedTypeName);
+        }
+        if (e.getEnclosingElement() instanceof TypeElement) {
+            reverseIndex.addNestedType(((TypeElement) e.getEnclosingElement()).getQualifiedName().toString(), qualifiedTypeName);
+        }
+    }
+
+    /**
+     * Records the annotations of a method, constructor or field in the reverse index.
+     *
+     * @param e The member.
+     */
+    private void addAnnotationUsages(Element e) {
+        if (e.getAnnotationMirrors().isEmpty() || !(e.getEnclosingElement() instanceof TypeElement)) {
+            return;
+        }
+        String member = ((TypeElement) e.getEnclosingElement()).getQualifiedName() + "#" + e.getSimpleName();
+        for (AnnotationMirror annotation : e.getAnnotationMirrors()) {
+            reverseIndex.addAnnotationUsage(qualifiedName(annotation.getAnnotationType()), member);
+        }
+    }
+
+    /**
+     * Returns the qualified name of a declared type, without its type arguments.
+     *
+     * @param type The type.
+     * @return The qualified name, or {@code null} if the type is not a declared type.
+     */
+    private String qualifiedName(TypeMirror type) {
+        Element element = type.getKind() == TypeKind.DECLARED ? typeUtils.asElement(type) : null;
+        return element instanceof TypeElement ? ((TypeElement) element).getQualifiedName().toString() : null;
+    }
+
     /**
      * Converts a superclass {@link TypeMirror} to a Prolog {@code extends} fact.
      */
     private Term toPrologExtends(TypeMirror superclass) {
         if (superclass == null || superclass.getKind() == TypeKind.NONE || superclass.toString().equals("java.lang.Object")) {
-            return new Atom("null");
+            return Atom.NULL;
         }
-        return new Fact("extends", new Atom(superclass.getKind().toString().toLowerCase()), toPrologType(superclass));
+        return new Fact("extends", atoms.intern(superclass.getKind().toString().toLowerCase()), toPrologType(superclass));
     }
 
     /**
      * Converts a list of interface {@link TypeMirror}s to a Prolog list of implements facts.
      */
     private PrologList toPrologImplementsList(List<? extends TypeMirror> interfaces) {
-        return new PrologList(interfaces.stream()
+        return PrologList.of(interfaces.stream()
                 .map(this::toPrologImplements)
                 .collect(Collectors.toList()));
     }
@@ -490,14 +656,14 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      * Converts a single interface {@link TypeMirror} to a Prolog {@code implements} fact.
      */
     private Term toPrologImplements(TypeMirror iface) {
-        return new Fact("implements", new Atom(iface.getKind().toString().toLowerCase()), toPrologType(iface));
+        return new Fact("implements", atoms.intern(iface.getKind().toString().toLowerCase()), toPrologType(iface));
     }
 
     /**
      * Converts a list of method/constructor {@link VariableElement} parameters to a Prolog list of parameter facts.
      */
     private PrologList toPrologParameterList(List<? extends VariableElement> parameters) {
-        return new PrologList(parameters.stream()
+        return PrologList.of(parameters.stream()
                 .map(this::toPrologParameter)
                 .collect(Collectors.toList()));
     }
@@ -507,7 +673,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      */
     private Term toPrologParameter(VariableElement e) {
         return new Fact("parameter",
-                new Atom(e.getSimpleName().toString()),
+                atoms.intern(e.getSimpleName().toString()),
                 toPrologType(e.asType()),
                 toPrologModifierList(e.getModifiers()),
                 toPrologAnnotationList(e.getAnnotationMirrors())
@@ -518,7 +684,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      * Converts a list of thrown {@link TypeMirror}s to a Prolog list of throws facts.
      */
     private PrologList toPrologThrowsList(List<? extends TypeMirror> thrownTypes) {
-        return new PrologList(thrownTypes.stream()
+        return PrologList.of(thrownTypes.stream()
                 .map(this::toPrologThrows)
                 .collect(Collectors.toList()));
     }
@@ -534,21 +700,21 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      * Retrieves the Javadoc comment for a given element, if the {@code outputCommentary} flag is enabled.
      *
      * @param e The element whose comment is to be retrieved.
-     * @return The formatted Javadoc comment as a string, or an empty string if not available or disabled.
+     * @return The formatted Javadoc comment, or an empty comment if not available or disabled.
      */
-    private String getDocComment(Element e) {
+    private DocComment getDocComment(Element e) {
         if (outputCommentary) {
             String comment = docEnv.getElementUtils().getDocComment(e);
-            return comment != null ? comment.replace("\n", "\\n").replace("\r", "") : "";
+            return comment != null ? DocComment.of(comment.replace("\n", "\\n").replace("\r", "")) : DocComment.EMPTY;
         }
-        return "";
+        return DocComment.EMPTY;
     }
 
     /**
      * Converts a list of {@link AnnotationMirror}s to a Prolog list of annotation facts.
      */
     private PrologList toPrologAnnotationList(List<? extends AnnotationMirror> annotations) {
-        return new PrologList(annotations.stream()
+        return PrologList.of(annotations.stream()
                 .map(this::toPrologAnnotation)
                 .collect(Collectors.toList()));
     }
@@ -561,10 +727,10 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
         String annotationName = ((TypeElement) annotationType.asElement()).getQualifiedName().toString();
         List<Term> arguments = annotation.getElementValues().entrySet().stream()
                 .map(entry -> new Fact("annotation_argument",
-                        new Atom(entry.getKey().getSimpleName().toString()),
+                        atoms.intern(entry.getKey().getSimpleName().toString()),
                         toPrologAnnotationValue(entry.getValue())))
                 .collect(Collectors.toList());
-        return new Fact("annotation", new Atom(annotationName), new PrologList(arguments));
+        return new Fact("annotation", atoms.intern(annotationName), PrologList.of(arguments));
     }
 
     /**
@@ -575,47 +741,47 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
         return new SimpleAnnotationValueVisitor8<Term, Void>() {
             @Override
             public Term visitBoolean(boolean b, Void aVoid) {
-                return new Atom(Boolean.toString(b));
+                return atoms.intern(Boolean.toString(b));
             }
 
             @Override
             public Term visitByte(byte b, Void aVoid) {
-                return new Atom(Byte.toString(b));
+                return atoms.intern(Byte.toString(b));
             }
 
             @Override
             public Term visitChar(char c, Void aVoid) {
-                return new Atom("'" + c + "'"); // Prolog character atom
+                return atoms.intern("'" + c + "'"); // Prolog character atom
             }
 
             @Override
             public Term visitDouble(double d, Void aVoid) {
-                return new Atom(Double.toString(d));
+                return atoms.intern(Double.toString(d));
             }
 
             @Override
             public Term visitFloat(float f, Void aVoid) {
-                return new Atom(Float.toString(f));
+                return atoms.intern(Float.toString(f));
             }
 
             @Override
             public Term visitInt(int i, Void aVoid) {
-                return new Atom(Integer.toString(i));
+                return atoms.intern(Integer.toString(i));
             }
 
             @Override
             public Term visitLong(long l, Void aVoid) {
-                return new Atom(Long.toString(l));
+                return atoms.intern(Long.toString(l));
             }
 
             @Override
             public Term visitShort(short s, Void aVoid) {
-                return new Atom(Short.toString(s));
+                return atoms.intern(Short.toString(s));
             }
 
             @Override
             public Term visitString(String s, Void aVoid) {
-                return new Atom("'" + s + "'"); // Prolog string atom
+                return atoms.intern("'" + s + "'"); // Prolog string atom
             }
 
             @Override
@@ -625,7 +791,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
 
             @Override
             public Term visitEnumConstant(VariableElement c, Void aVoid) {
-                return new Atom(c.getEnclosingElement().getSimpleName().toString() + "." + c.getSimpleName().toString());
+                return atoms.intern(c.getEnclosingElement().getSimpleName().toString() + "." + c.getSimpleName().toString());
             }
 
             @Override
@@ -635,7 +801,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
 
             @Override
             public Term visitArray(List<? extends AnnotationValue> vals, Void aVoid) {
-                return new PrologList(vals.stream()
+                return PrologList.of(vals.stream()
                         .map(val -> val.accept(this, aVoid))
                         .collect(Collectors.toList()));
             }
@@ -643,64 +809,157 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
 @Override
             public Term visitUnknown(AnnotationValue av, Void p) {
                 reporter.print(Diagnostic.Kind.WARNING, "Unknown annotation value type: " + av);
-                return new Atom("unknown_annotation_value");
+                return atoms.intern("unknown_annotation_value");
             }
         }.visit(value);
     }
 
     /**
      * Converts a {@link TypeMirror} into a structured Prolog {@link Term}.
-     * This uses a nested visitor to handle different kinds of types (declared, primitive, array, etc.).
+     * <p>
+     * Type terms are canonical for the whole run: the term of a given type is built and rendered once by the
+     * shared {@link TypeTermVisitor} and then reused wherever the type occurs. Types without type arguments are
+     * cached by their element, all other types by their textual representation.
      */
     private Term toPrologType(TypeMirror typeMirror) {
-        return typeMirror.accept(new SimpleTypeVisitor9<Term, Void>() {
-            @Override
-            public Term visitDeclared(DeclaredType t, Void aVoid) {
-                Element element = t.asElement();
-                String qualifiedName = (element instanceof TypeElement) ? ((TypeElement) element).getQualifiedName().toString() : element.getSimpleName().toString();
-                List<Term> typeArguments = t.getTypeArguments().stream()
-                        .map(arg -> arg.accept(this, aVoid))
-                        .collect(Collectors.toList());
-                return new Fact("declared_type", new Atom(qualifiedName), new PrologList(typeArguments));
+        if (typeMirror.getKind() == TypeKind.DECLARED && ((DeclaredType) typeMirror).getTypeArguments().isEmpty()) {
+            Element element = ((DeclaredType) typeMirror).asElement();
+            Term term = declaredTypeTermCache.get(element);
+            if (term == null) {
+                term = canonicalTypeTerm(typeMirror);
+                declaredTypeTermCache.put(element, term);
             }
+            return term;
+        }
+        String key = typeMirror.toString();
+        Term term = typeTermCache.get(key);
+        if (term == null) {
+            // No computeIfAbsent: building the term recursively populates the same cache.
+            term = canonicalTypeTerm(typeMirror);
+            typeTermCache.put(key, term);
+        }
+        return term;
+    }
 
-            @Override
-            public Term visitPrimitive(PrimitiveType t, Void aVoid) {
-                return new Fact("type", new Atom("primitive"), new Atom(t.getKind().toString().toLowerCase()));
-            }
+    /**
+     * Builds the term of a type and pre-renders it for reuse.
+     */
+    private Term canonicalTypeTerm(TypeMirror typeMirror) {
+        Term term = typeMirror.accept(typeTermVisitor, null);
+        return term instanceof Fact ? Fact.prerendered((Fact) term) : term;
+    }
 
-            @Override
-            public Term visitArray(ArrayType t, Void aVoid) {
-                return new Fact("type", new Atom("array"), t.getComponentType().accept(this, aVoid));
-            }
+    /**
+     * Converts a {@link TypeMirror} into a structured Prolog {@link Term}.
+     * This visitor handles the different kinds of types (declared, primitive, array, etc.). Nested types are
+     * converted through {@link #toPrologType(TypeMirror)} so that they are shared as well.
+     */
+    private class TypeTermVisitor extends SimpleTypeVisitor9<Term, Void> {
+        @Override
+        public Term visitDeclared(DeclaredType t, Void aVoid) {
+            Element element = t.asElement();
+            String qualifiedName = (element instanceof TypeElement) ? ((TypeElement) element).getQualifiedName().toString() : element.getSimpleName().toString();
+            List<Term> typeArguments = t.getTypeArguments().stream()
+                    .map(PrologVisitor.this::toPrologType)
+                    .collect(Collectors.toList());
+            return new Fact("declared_type", atoms.intern(qualifiedName), PrologList.of(typeArguments));
+        }
 
-            @Override
-            public Term visitTypeVariable(TypeVariable t, Void aVoid) {
-                return new Fact("type", new Atom("type_variable"), new Atom(t.asElement().getSimpleName().toString()));
-            }
+        @Override
+        public Term visitPrimitive(PrimitiveType t, Void aVoid) {
+            return new Fact("type", atoms.intern("primitive"), atoms.intern(t.getKind().toString().toLowerCase()));
+        }
 
-            @Override
-            public Term visitWildcard(WildcardType t, Void aVoid) {
-                if (t.getExtendsBound() != null) {
-                    return new Fact("type", new Atom("wildcard_extends"), t.getExtendsBound().accept(this, aVoid));
-                } else if (t.getSuperBound() != null) {
-                    return new Fact("type", new Atom("wildcard_super"), t.getSuperBound().accept(this, aVoid));
-                } else {
-                    return new Fact("type", new Atom("wildcard_unbounded"), new Atom("null"));
-                }
-            }
+        @Override
+        public Term visitArray(ArrayType t, Void aVoid) {
+            return new Fact("type", atoms.intern("array"), toPrologType(t.getComponentType()));
+        }
 
-            @Override
-            public Term visitNoType(NoType t, Void aVoid) {
-                return new Fact("type", new Atom("no_type"), new Atom(t.getKind().toString().toLowerCase()));
-            }
+        @Override
+        public Term visitTypeVariable(TypeVariable t, Void aVoid) {
+            return new Fact("type", atoms.intern("type_variable"), atoms.intern(t.asElement().getSimpleName().toString()));
+        }
 
-            @Override
-            protected Term defaultAction(TypeMirror e, Void aVoid) {
-                reporter.print(Diagnostic.Kind.WARNING, "Unsupported type mirror kind: " + e.getKind() + " for " + e);
-                return new Atom("unknown_type");
+        @Override
+        public Term visitWildcard(WildcardType t, Void aVoid) {
+            if (t.getExtendsBound() != null) {
+                return new Fact("type", atoms.intern("wildcard_extends"), toPrologType(t.getExtendsBound()));
+            } else if (t.getSuperBound() != null) {
+                return new Fact("type", atoms.intern("wildcard_super"), toPrologType(t.getSuperBound()));
+            } else {
+                return new Fact("type", atoms.intern("wildcard_unbounded"), Atom.NULL);
             }
-        }, null);
+        }
+
+        @Override
+        public Term visitNoType(NoType t, Void aVoid) {
+            return new Fact("type", atoms.intern("no_type"), atoms.intern(t.getKind().toString().toLowerCase()));
+        }
+
+        @Override
+        protected Term defaultAction(TypeMirror e, Void aVoid) {
+            reporter.print(Diagnostic.Kind.WARNING, "Unsupported type mirror kind: " + e.getKind() + " for " + e);
+            return atoms.intern("unknown_type");
+        }
+    }
+
+    /**
+     * Records that the fact of an element has been built, starting at the given time.
+     */
+    private void termBuilt(long start) {
+        termBuildingNanos += System.nanoTime() - start;
+        factCount++;
+    }
+
+    /**
+     * Returns the number of elements visited so far: modules, packages, types and their members, including members
+     * without a fact of their own such as enum constants. Elements visited more than once are counted once.
+     *
+     * @return The number of visited elements.
+     */
+    public long getVisitedElementCount() {
+        return visitedElementCount;
+    }
+
+    /**
+     * Returns the number of facts built for the visited elements: one per module, package, type, method, constructor
+     * and field. The nested terms of a fact and the index facts are not counted.
+     *
+     * @return The number of facts built.
+     */
+    public long getFactCount() {
+        return factCount;
+    }
+
+    /**
+     * Returns the pool of the atoms built by this visitor, whose hit and miss counts tell how often atoms
+     * were shared.
+     *
+     * @return The atom pool.
+     */
+    public AtomPool getAtomPool() {
+        return atoms;
+    }
+
+    /**
+     * Returns the time spent building the facts of the visited elements, including the conversion of their types,
+     * annotations and doc comments.
+     *
+     * @return The term building time in nanoseconds.
+     */
+    public long getTermBuildingNanos() {
+        return termBuildingNanos;
+    }
+
+    /**
+     * Returns the time spent handing facts to the writers. With a single thread this includes rendering and
+     * writing the files; with a writer pool it is the time spent queueing, or rendering on this thread when
+     * the queue is full.
+     *
+     * @return The scheduling time in nanoseconds.
+     */
+    public long getSchedulingNanos() {
+        return schedulingNanos;
     }
 
     /**
@@ -718,7 +977,30 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      * @return A {@link Fact} representing the top-level index for modules.
      */
     public Fact getModuleIndex() {
-        return new Fact("module_index", new PrologList(indexModuleList));
+        return new Fact("module_index", PrologList.of(indexModuleList));
+    }
+
+    /**
+     * Returns the reverse edges collected during the traversal, see {@link ReverseIndex}.
+     *
+     * @return The reverse index.
+     */
+    public ReverseIndex getReverseIndex() {
+        return reverseIndex;
+    }
+
+    /**
+     * Builds the hierarchy facts of the visited types, one per package, see {@link TypeHierarchy}.
+     * The supertypes and inherited members are evaluated once per run, so this should be called once the
+     * traversal is complete.
+     *
+     * @return The {@code package_hierarchy} facts, keyed by package name in the order of the names.
+     */
+    public Map<String, Fact> buildPackageHierarchies() {
+        TypeHierarchy hierarchy = new TypeHierarchy(typeUtils, docEnv.getElementUtils(), atoms);
+        Map<String, Fact> hierarchies = new LinkedHashMap<>();
+        packageTypes.forEach((packageName, types) -> hierarchies.put(packageName, hierarchy.packageHierarchy(packageName, types)));
+        return hierarchies;
     }
 
     /**
@@ -727,7 +1009,7 @@ public class PrologVisitor extends SimpleElementVisitor9<Void, Void> {
      * @return A {@link Fact} representing the top-level index for packages.
      */
     public Fact getPackageIndex() {
-        return new Fact("package_index", new PrologList(indexPackageList));
+        return new Fact("package_index", PrologList.of(indexPackageList));
     }
 
 }
@@ -0,0 +1,176 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Collects the reverse edges of the type hierarchy, of annotation usages and of type nesting during the traversal.
+ * <p>
+ * The type facts only record forward edges: a class lists the types it extends and implements, an element the
+ * annotations it carries. This index records, for every referenced type, the types and members pointing at it,
+ * so that the index files written next to {@code package_index.pl} answer questions such as "which classes
+ * implement this interface" without reading every type file:
+ * <ul>
+ *     <li>{@value #SUBTYPE_INDEX}: {@code subtypes(Supertype, Subtypes)} for the superclass of every class and the
+ *     interfaces extended by every interface.</li>
+ *     <li>{@value #IMPLEMENTOR_INDEX}: {@code implementors(Interface, Types)} for the interfaces implemented by
+ *     classes, enums and records.</li>
+ *     <li>{@value #ANNOTATION_USAGE_INDEX}: {@code annotation_usages(Annotation, Elements)} for the annotations on
+ *     types, methods, constructors and fields. Members are named {@code Type#member}.</li>
+ *     <li>{@value #NESTED_TYPE_INDEX}: {@code nested_types(EnclosingType, NestedTypes)} for the types declared
+ *     directly within another type. The type files only carry the simple name of a nested type, so this index is
+ *     the only place telling its fully qualified name.</li>
+ * </ul>
+ * All names are fully qualified, as in the {@code declared_type} terms of the type facts, and sorted.
+ */
+public class ReverseIndex {
+    /**
+     * The name of the index of direct subtypes.
+     */
+    public static final String SUBTYPE_INDEX = "subtype_index";
+
+    /**
+     * The name of the index of direct implementors.
+     */
+    public static final String IMPLEMENTOR_INDEX = "implementor_index";
+
+    /**
+     * The name of the index of annotation usages.
+     */
+    public static final String ANNOTATION_USAGE_INDEX = "annotation_usage_index";
+
+    /**
+     * The name of the index of nested types.
+     */
+    public static final String NESTED_TYPE_INDEX = "nested_type_index";
+
+    private final AtomPool atoms;
+    private final Map<String, Set<String>> subtypes = new TreeMap<>();
+    private final Map<String, Set<String>> implementors = new TreeMap<>();
+    private final Map<String, Set<String>> annotationUsages = new TreeMap<>();
+    private final Map<String, Set<String>> nestedTypes = new TreeMap<>();
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param atoms The pool the atoms of the index facts are taken from.
+     */
+    public ReverseIndex(AtomPool atoms) {
+        this.atoms = atoms;
+    }
+
+    /**
+     * Records that a type directly extends another one.
+     *
+     * @param supertype The qualified name of the extended class or interface.
+     * @param subtype   The qualified name of the extending type.
+     */
+    public void addSubtype(String supertype, String subtype) {
+        subtypes.computeIfAbsent(supertype, key -> new TreeSet<>()).add(subtype);
+    }
+
+    /**
+     * Records that a class, enum or record directly implements an interface.
+     *
+     * @param iface       The qualified name of the interface.
+     * @param implementor The qualified name of the implementing type.
+     */
+    public void addImplementor(String iface, String implementor) {
+        implementors.computeIfAbsent(iface, key -> new TreeSet<>()).add(implementor);
+    }
+
+    /**
+     * Records that an element carries an annotation.
+     *
+     * @param annotation The qualified name of the annotation type.
+     * @param element    The qualified name of the annotated type, or {@code Type#member} for a member.
+     */
+    public void addAnnotationUsage(String annotation, String element) {
+        annotationUsages.computeIfAbsent(annotation, key -> new TreeSet<>()).add(element);
+    }
+
+    /**
+     * Records that a type is declared directly within another type.
+     *
+     * @param enclosingType The qualified name of the enclosing type.
+     * @param nestedType    The qualified name of the nested type.
+     */
+    public void addNestedType(String enclosingType, String nestedType) {
+        nestedTypes.computeIfAbsent(enclosingType, key -> new TreeSet<>()).add(nestedType);
+    }
+
+    /**
+     * Returns the index of direct subtypes.
+     *
+     * @return A {@code subtype_index} fact with a {@code subtypes/2} entry per supertype.
+     */
+    public Fact getSubtypeIndex() {
+        return toFact(SUBTYPE_INDEX, "subtypes", subtypes);
+    }
+
+    /**
+     * Returns the index of direct implementors.
+     *
+     * @return An {@code implementor_index} fact with an {@code implementors/2} entry per interface.
+     */
+    public Fact getImplementorIndex() {
+        return toFact(IMPLEMENTOR_INDEX, "implementors", implementors);
+    }
+
+    /**
+     * Returns the index of annotation usages.
+     *
+     * @return An {@code annotation_usage_index} fact with an {@code annotation_usages/2} entry per annotation type.
+     */
+    public Fact getAnnotationUsageIndex() {
+        return toFact(ANNOTATION_USAGE_INDEX, "annotation_usages", annotationUsages);
+    }
+
+    /**
+     * Returns the index of nested types.
+     *
+     * @return A {@code nested_type_index} fact with a {@code nested_types/2} entry per enclosing type.
+     */
+    public Fact getNestedTypeIndex() {
+        return toFact(NESTED_TYPE_INDEX, "nested_types", nestedTypes);
+    }
+
+    private Fact toFact(String indexName, String entryName, Map<String, Set<String>> edges) {
+        List<Term> entries = new ArrayList<>(edges.size());
+        edges.forEach((target, sources) -> {
+            List<Term> names = new ArrayList<>(sources.size());
+            for (String source : sources) {
+                names.add(atoms.intern(source));
+            }
+            entries.add(new Fact(entryName, atoms.intern(target), PrologList.of(names)));
+        });
+        return new Fact(indexName, PrologList.of(entries));
+    }
+}
@@ -23,6 +23,9 @@
  */
 package io.github.grimch.doclet.prolog;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * Represents the abstract base for all Prolog terms, which are the fundamental data structures in Prolog.
  * <p>
@@ -36,14 +39,46 @@ package io.github.grimch.doclet.prolog;
  */
 public abstract class Term {
     /**
-     * Returns the string representation of the Prolog term.
+     * Writes the Prolog representation of this term to the given {@link Appendable}.
      * <p>
      * Each subclass must implement this method to provide a valid Prolog syntax
      * for that specific term. For example, an Atom might be represented as {@code 'my_atom'},
      * a Fact as {@code predicate(arg1, arg2)}, and a List as {@code [elem1, elem2]}.
+     * Compound terms write their children directly into the same target, so no intermediate
+     * strings are built for nested terms.
+     *
+     * @param out The target to write to, typically a buffered {@link java.io.Writer} or a {@link StringBuilder}.
+     * @throws IOException If writing to the target fails.
+     */
+    public abstract void appendTo(Appendable out) throws IOException;
+
+    /**
+     * Returns the string representation of the Prolog term, as written by {@link #appendTo(Appendable)}.
      *
      * @return A string that can be parsed by a Prolog interpreter.
      */
-    public abstract String toString();
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            appendTo(sb);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a copy of this term in which every {@link DocComment} is replaced by an empty comment.
+     * <p>
+     * This is used to derive the "minimal" output from the "full" one. Subtrees that do not contain
+     * any doc comment are shared with the original term instead of being copied.
+     *
+     * @return This term if it contains no doc comments, otherwise a stripped copy.
+     */
+    public Term stripDocComments() {
+        return this;
+    }
 }
 
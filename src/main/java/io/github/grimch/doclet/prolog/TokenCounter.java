@@ -0,0 +1,323 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the tokens a language model would see in rendered facts, offline and in a single pass over the UTF-8 bytes,
+ * without allocating per byte or per token.
+ * <p>
+ * Like the tokenizers of the common models, the bytes are first split into segments that no token crosses: a word
+ * with an optional leading space, up to three digits, a run of punctuation with an optional leading space, or a run
+ * of whitespace. Each segment is then counted:
+ * <ul>
+ *     <li>With a vocabulary, the segment is split greedily into the longest tokens of the vocabulary, a byte that
+ *     starts no token counting as one token. This approximates the merges of a BPE tokenizer closely, since its
+ *     vocabulary holds the results of the merges.</li>
+ *     <li>Without a vocabulary, a word counts one token per camel case part of up to seven letters, a run of
+ *     punctuation one token per two characters, and digits and whitespace one token per segment.</li>
+ * </ul>
+ * A vocabulary file holds one token per line, either in the format of tiktoken, i.e. the base64 encoded bytes of the
+ * token followed by its rank, or as plain text, where the markers {@code U+0120}, {@code U+010A} and {@code U+0109}
+ * of byte-level BPE vocabularies stand for a space, a line feed and a tab.
+ * <p>
+ * A counter is immutable, so it can be used from any number of threads.
+ */
+public final class TokenCounter {
+    private static final Pattern TIKTOKEN_LINE = Pattern.compile("[A-Za-z0-9+/]+=*\\s+\\d+");
+
+    private static final int LETTER = 0;
+    private static final int DIGIT = 1;
+    private static final int SPACE = 2;
+    private static final int WHITESPACE = 3;
+    private static final int PUNCTUATION = 4;
+    private static final byte[] CLASSES = new byte[256];
+
+    static {
+        Arrays.fill(CLASSES, (byte) PUNCTUATION);
+        for (int b = 'a'; b <= 'z'; b++) {
+            CLASSES[b] = LETTER;
+            CLASSES[b - 'a' + 'A'] = LETTER;
+        }
+        for (int b = 0x80; b < 0x100; b++) {
+            CLASSES[b] = LETTER;
+        }
+        for (int b = '0'; b <= '9'; b++) {
+            CLASSES[b] = DIGIT;
+        }
+        CLASSES[' '] = SPACE;
+        CLASSES['\t'] = WHITESPACE;
+        CLASSES['\n'] = WHITESPACE;
+        CLASSES['\r'] = WHITESPACE;
+    }
+
+    private final ByteTrie vocabulary;
+
+    /**
+     * Constructs a counter approximating the tokens without a vocabulary.
+     */
+    public TokenCounter() {
+        this(null);
+    }
+
+    private TokenCounter(ByteTrie vocabulary) {
+        this.vocabulary = vocabulary;
+    }
+
+    /**
+     * Loads a counter from a vocabulary file.
+     *
+     * @param vocabularyFile A file with one token per line, see {@link TokenCounter}.
+     * @return The counter.
+     * @throws IOException If the file cannot be read.
+     */
+    public static TokenCounter load(Path vocabularyFile) throws IOException {
+        ByteTrie vocabulary = new ByteTrie();
+        try (BufferedReader reader = Files.newBufferedReader(vocabularyFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (TIKTOKEN_LINE.matcher(line).matches()) {
+                    vocabulary.add(Base64.getDecoder().decode(line.split("\\s+")[0]));
+                } else {
+                    vocabulary.add(line.replace('\u0120', ' ').replace('\u010A', '\n').replace('\u0109', '\t').getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return new TokenCounter(vocabulary);
+    }
+
+    /**
+     * Tells if this counter splits the segments with a vocabulary.
+     *
+     * @return {@code true} if the counter was loaded from a vocabulary file.
+     */
+    public boolean hasVocabulary() {
+        return vocabulary != null;
+    }
+
+    /**
+     * Counts the tokens of a text.
+     *
+     * @param text The text.
+     * @return The number of tokens.
+     */
+    public int count(CharSequence text) {
+        return (int) count(ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Counts the tokens of UTF-8 encoded content, from its position to its limit. The position is not changed.
+     *
+     * @param content The content, e.g. a rendered file.
+     * @return The number of tokens.
+     */
+    public long count(ByteBuffer content) {
+        long tokens = 0;
+        int limit = content.limit();
+        int i = content.position();
+        while (i < limit) {
+            int start = i;
+            int type = CLASSES[content.get(i) & 0xFF];
+            if (type == SPACE && i + 1 < limit) {
+                // A single space is part of the following word or punctuation
+                int next = CLASSES[content.get(i + 1) & 0xFF];
+                if (next == LETTER || next == PUNCTUATION) {
+                    type = next;
+                    i++;
+                }
+            }
+            if (type == DIGIT) {
+                while (i < limit && i - start < 3 && CLASSES[content.get(i) & 0xFF] == DIGIT) {
+                    i++;
+                }
+                tokens += vocabulary != null ? countSegment(content, start, i) : 1;
+            } else if (type == SPACE || type == WHITESPACE) {
+                // Leave the last space of a run of spaces to the following word
+                while (i < limit && isWhitespace(CLASSES[content.get(i) & 0xFF])
+                        && !(content.get(i) == ' ' && i + 1 < limit && i > start && isWordStart(content.get(i + 1)))) {
+                    i++;
+                }
+                tokens += vocabulary != null ? countSegment(content, start, i) : 1;
+            } else {
+                while (i < limit && CLASSES[content.get(i) & 0xFF] == type) {
+                    i++;
+                }
+                if (vocabulary != null) {
+                    tokens += countSegment(content, start, i);
+                } else if (type == LETTER) {
+                    tokens += countWord(content, start, i);
+                } else {
+                    tokens += (i - start + 1) / 2;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isWhitespace(int type) {
+        return type == SPACE || type == WHITESPACE;
+    }
+
+    private static boolean isWordStart(byte b) {
+        int type = CLASSES[b & 0xFF];
+        return type == LETTER || type == PUNCTUATION;
+    }
+
+    /**
+     * Counts a word without a vocabulary: one token per camel case part of up to seven letters.
+     */
+    private static long countWord(ByteBuffer content, int start, int end) {
+        long tokens = 0;
+        int partLength = 0;
+        boolean lowerCase = false;
+        for (int i = start; i < end; i++) {
+            byte b = content.get(i);
+            boolean upperCase = b >= 'A' && b <= 'Z';
+            if (partLength > 0 && upperCase && lowerCase) {
+                tokens += 1 + (partLength - 1) / 7;
+                partLength = 0;
+            }
+            if (b != ' ') {
+                partLength++;
+            }
+            lowerCase = b >= 'a' && b <= 'z';
+        }
+        return tokens + (partLength > 0 ? 1 + (partLength - 1) / 7 : 0);
+    }
+
+    /**
+     * Counts a segment with the vocabulary, taking the longest known token at every position.
+     */
+    private long countSegment(ByteBuffer content, int start, int end) {
+        long tokens = 0;
+        int i = start;
+        while (i < end) {
+            int node = 0;
+            int longest = 1;
+            for (int j = i; j < end; j++) {
+                node = vocabulary.child(node, content.get(j));
+                if (node < 0) {
+                    break;
+                }
+                if (vocabulary.isToken(node)) {
+                    longest = j - i + 1;
+                }
+            }
+            i += longest;
+            tokens++;
+        }
+        return tokens;
+    }
+
+    /**
+     * A trie over the bytes of the tokens, its edges kept in a single open addressing hash table.
+     */
+    private static final class ByteTrie {
+        private long[] keys = new long[1 << 12];
+        private int[] children = new int[1 << 12];
+        private boolean[] tokens = new boolean[1 << 10];
+        private int edgeCount;
+        private int nodeCount = 1;
+
+        ByteTrie() {
+            Arrays.fill(keys, -1);
+        }
+
+        void add(byte[] token) {
+            int node = 0;
+            for (byte b : token) {
+                int child = child(node, b);
+                if (child < 0) {
+                    child = nodeCount++;
+                    if (child == tokens.length) {
+                        tokens = Arrays.copyOf(tokens, tokens.length * 2);
+                    }
+                    put(key(node, b), child);
+                }
+                node = child;
+            }
+            tokens[node] = true;
+        }
+
+        int child(int node, byte b) {
+            long key = key(node, b);
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; keys[slot] != -1; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return children[slot];
+                }
+            }
+            return -1;
+        }
+
+        boolean isToken(int node) {
+            return tokens[node];
+        }
+
+        private void put(long key, int child) {
+            if ((edgeCount + 1) * 2 > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldChildren = children;
+                keys = new long[oldKeys.length * 2];
+                children = new int[oldKeys.length * 2];
+                Arrays.fill(keys, -1);
+                edgeCount = 0;
+                for (int slot = 0; slot < oldKeys.length; slot++) {
+                    if (oldKeys[slot] != -1) {
+                        put(oldKeys[slot], oldChildren[slot]);
+                    }
+                }
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != -1) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            children[slot] = child;
+            edgeCount++;
+        }
+
+        private static long key(int node, byte b) {
+            return ((long) node << 8) | (b & 0xFF);
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Collects the number of tokens of every file a {@link DocletPrologWriter} writes, as counted by a
+ * {@link TokenCounter}, and reports them per package and per type, so that the APIs costing the most context can be
+ * found.
+ * <p>
+ * The report is written as {@value #FILE_NAME}{@code .pl} into the root of the writer's output, with the facts
+ * <ul>
+ *     <li>{@code token_total(Tokens)} for all files of the output;</li>
+ *     <li>{@code package_tokens(Package, Tokens, TypeCount)} for all files of a package directory, i.e. its type
+ *     files, {@code package.pl} and {@code package-hierarchy.pl};</li>
+ *     <li>{@code type_tokens(Package, Type, Tokens)} for the fact of a type, also when it is bundled;</li>
+ *     <li>{@code heaviest_type(Rank, Type, Tokens)} for the types with the most tokens.</li>
+ * </ul>
+ * Types are named by their fully qualified name, e.g. {@code java.util.Map.Entry} for a nested type, also when their
+ * file is named after their simple name. Files are added from the threads writing them.
+ */
+public class TokenReport {
+    /**
+     * The base name of the report file, placed in the root directory of the output.
+     */
+    public static final String FILE_NAME = "token_report";
+
+    /**
+     * The number of types listed as the heaviest.
+     */
+    public static final int TOP_TYPE_COUNT = 20;
+
+    private final Path outputDirectory;
+    private final Map<Path, Long> fileTokens = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> packageTypes = new ConcurrentSkipListMap<>();
+    private final Map<String, Path> typeFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty report.
+     *
+     * @param outputDirectory The root directory of the output.
+     */
+    public TokenReport(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Adds the tokens of a written file.
+     *
+     * @param file   The file, without its extension. A type in a bundle is added as if it had its own file.
+     * @param tokens The number of tokens.
+     */
+    void addFile(Path file, long tokens) {
+        fileTokens.put(file, tokens);
+    }
+
+    /**
+     * Records that a type is written, so that its file is reported as the type.
+     *
+     * @param packageName   The fully qualified name of the package containing the type.
+     * @param fileName      The name of the type's file without extension.
+     * @param qualifiedName The fully qualified name of the type.
+     */
+    void addType(String packageName, String fileName, String qualifiedName) {
+        packageTypes.computeIfAbsent(packageName, name -> new ConcurrentSkipListSet<>()).add(qualifiedName);
+        typeFiles.put(qualifiedName, packageDirectory(packageName).resolve(fileName));
+    }
+
+    /**
+     * Returns the number of tokens of all files of the output.
+     *
+     * @return The total number of tokens.
+     */
+    public long getTotalTokens() {
+        return fileTokens.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Returns the number of tokens of all files of a package directory.
+     *
+     * @param packageName The fully qualified name of the package.
+     * @return The number of tokens, 0 for an unknown package.
+     */
+    public long getPackageTokens(String packageName) {
+        Path packageDirectory = packageDirectory(packageName);
+        return fileTokens.entrySet().stream()
+                .filter(file -> packageDirectory.equals(file.getKey().getParent()))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    /**
+     * Returns the number of tokens of the fact of a type.
+     *
+     * @param qualifiedName The fully qualified name of the type, e.g. {@code java.util.Map.Entry}.
+     * @return The number of tokens, or -1 for an unknown type.
+     */
+    public long getTypeTokens(String qualifiedName) {
+        Path file = typeFiles.get(qualifiedName);
+        return file != null ? fileTokens.getOrDefault(file, -1L) : -1L;
+    }
+
+    /**
+     * Returns the types with the most tokens, the heaviest first, types with the same number of tokens in the order
+     * of their names.
+     *
+     * @param count The maximum number of types.
+     * @return The number of tokens of the types, keyed by qualified name in the order of their rank.
+     */
+    public Map<String, Long> getHeaviestTypes(int count) {
+        Map<String, Long> heaviest = new LinkedHashMap<>();
+        typeTokens().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(count)
+                .forEach(type -> heaviest.put(type.getKey(), type.getValue()));
+        return heaviest;
+    }
+
+    /**
+     * Returns the report as facts, see {@link TokenReport}.
+     *
+     * @return The facts, in the order they are written.
+     */
+    public List<Fact> toFacts() {
+        List<Fact> facts = new ArrayList<>();
+        facts.add(new Fact("token_total", new PrologInteger(getTotalTokens())));
+        Map<Path, Long> directoryTokens = directoryTokens();
+        packageTypes.forEach((packageName, typeNames) -> {
+            facts.add(new Fact("package_tokens", new Atom(packageName),
+                    new PrologInteger(directoryTokens.getOrDefault(packageDirectory(packageName), 0L)),
+                    new PrologInteger(typeNames.size())));
+            for (String typeName : typeNames) {
+                facts.add(new Fact("type_tokens", new Atom(packageName), new Atom(typeName),
+                        new PrologInteger(getTypeTokens(typeName))));
+            }
+        });
+        int rank = 1;
+        for (Map.Entry<String, Long> type : getHeaviestTypes(TOP_TYPE_COUNT).entrySet()) {
+            facts.add(new Fact("heaviest_type", new PrologInteger(rank++), new Atom(type.getKey()), new PrologInteger(type.getValue())));
+        }
+        return facts;
+    }
+
+    /**
+     * Returns the number of tokens of all files of every directory, summed in a single pass over the files.
+     */
+    private Map<Path, Long> directoryTokens() {
+        Map<Path, Long> directories = new HashMap<>();
+        fileTokens.forEach((file, tokens) -> directories.merge(file.getParent(), tokens, Long::sum));
+        return directories;
+    }
+
+    /**
+     * Returns the number of tokens of every type, keyed and sorted by qualified name.
+     */
+    private Map<String, Long> typeTokens() {
+        Map<String, Long> types = new TreeMap<>();
+        typeFiles.keySet().forEach(typeName -> types.put(typeName, getTypeTokens(typeName)));
+        return types;
+    }
+
+    private Path packageDirectory(String packageName) {
+        return outputDirectory.resolve(packageName.replace('.', '/'));
+    }
+}
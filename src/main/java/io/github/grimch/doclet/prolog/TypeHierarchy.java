@@ -0,0 +1,274 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.prolog;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the transitive supertypes and the inherited members of types, so that an agent finds everything it can
+ * call on a type in a single fact instead of walking the {@code extends} and {@code implements} chain file by file.
+ * <p>
+ * Both are evaluated over the javac model, which also knows the supertypes outside the documented code, such as
+ * {@code java.lang.Object}. Every type is evaluated once, after its direct supertypes, and the result is memoized,
+ * so a supertype shared by many types, e.g. a common base class, is only evaluated the first time it is reached.
+ * <p>
+ * The result is a {@code package_hierarchy(Package, [type_hierarchy(Type, Supertypes, InheritedMembers), ...])}
+ * fact per package:
+ * <ul>
+ *     <li>The supertypes are the qualified names of all transitive supertypes, the direct ones first.</li>
+ *     <li>The inherited members are grouped by declaring supertype as {@code inherited(Supertype, Members)}. A
+ *     method is written as its name followed by its erased parameter types, e.g. {@code 'get(int)'}, a field as its
+ *     name. Members declared or overridden by the type itself are left out, as are private members, constructors,
+ *     static interface methods and package-private members of other packages, which are not inherited.</li>
+ * </ul>
+ */
+class TypeHierarchy {
+    private final Types typeUtils;
+    private final Elements elementUtils;
+    private final AtomPool atoms;
+    private final Map<TypeElement, Set<TypeElement>> supertypes = new HashMap<>();
+    private final Map<TypeElement, Map<String, Element>> availableMembers = new HashMap<>();
+
+    /**
+     * @param typeUtils    The type utilities of the javac model.
+     * @param elementUtils The element utilities of the javac model.
+     * @param atoms        The pool the atoms of the facts are taken from.
+     */
+    TypeHierarchy(Types typeUtils, Elements elementUtils, AtomPool atoms) {
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+        this.atoms = atoms;
+    }
+
+    /**
+     * Builds the hierarchy fact of a package.
+     *
+     * @param packageName The qualified name of the package.
+     * @param types       The types of the package, in any order; they are written in the order of their names.
+     * @return The {@code package_hierarchy} fact.
+     */
+    Fact packageHierarchy(String packageName, Collection<TypeElement> types) {
+        List<Term> entries = new ArrayList<>(types.size());
+        for (TypeElement type : types.stream()
+                .sorted(Comparator.comparing(type -> type.getSimpleName().toString()))
+                .collect(Collectors.toList())) {
+            entries.add(typeHierarchy(type));
+        }
+        return new Fact("package_hierarchy", atoms.intern(packageName), PrologList.of(entries));
+    }
+
+    /**
+     * Builds the hierarchy entry of a type.
+     */
+    private Fact typeHierarchy(TypeElement type) {
+        List<Term> supertypeNames = new ArrayList<>();
+        for (TypeElement supertype : supertypes(type)) {
+            supertypeNames.add(atoms.intern(supertype.getQualifiedName().toString()));
+        }
+
+        // Group the inherited members by declaring type, in the order of the supertypes
+        Map<TypeElement, List<Term>> inherited = new LinkedHashMap<>();
+        for (TypeElement supertype : supertypes(type)) {
+            inherited.put(supertype, new ArrayList<>());
+        }
+        for (Map.Entry<String, Element> member : availableMembers(type).entrySet()) {
+            Element declaringType = member.getValue().getEnclosingElement();
+            if (declaringType != type && inherited.containsKey(declaringType)) {
+                inherited.get(declaringType).add(atoms.intern(member.getKey()));
+            }
+        }
+        List<Term> inheritedTerms = new ArrayList<>();
+        inherited.forEach((supertype, members) -> {
+            if (!members.isEmpty()) {
+                inheritedTerms.add(new Fact("inherited", atoms.intern(supertype.getQualifiedName().toString()), PrologList.of(members)));
+            }
+        });
+        return new Fact("type_hierarchy",
+                atoms.intern(type.getSimpleName().toString()),
+                PrologList.of(supertypeNames),
+                PrologList.of(inheritedTerms));
+    }
+
+    /**
+     * Returns the transitive supertypes of a type: its direct supertypes, followed by theirs.
+     *
+     * @param type The type.
+     * @return The memoized supertypes, without duplicates.
+     */
+    private Set<TypeElement> supertypes(TypeElement type) {
+        Set<TypeElement> result = supertypes.get(type);
+        if (result != null) {
+            return result;
+        }
+        List<TypeElement> direct = directSupertypes(type);
+        result = new LinkedHashSet<>(direct);
+        for (TypeElement supertype : direct) {
+            result.addAll(supertypes(supertype));
+        }
+        supertypes.put(type, result);
+        return result;
+    }
+
+    /**
+     * Returns the members that can be called on a type, keyed by their signature: the members it declares and those
+     * of its supertypes it does not override, the nearest supertype winning. Private members are left out, since
+     * they are not inherited by subtypes.
+     *
+     * @param type The type.
+     * @return The memoized members, in the order of declaration and then of the supertypes.
+     */
+    private Map<String, Element> availableMembers(TypeElement type) {
+        Map<String, Element> result = availableMembers.get(type);
+        if (result != null) {
+            return result;
+        }
+        result = new LinkedHashMap<>();
+        Map<String, List<ExecutableElement>> methodsByArity = new HashMap<>();
+        for (Element member : type.getEnclosedElements()) {
+            String signature = signature(member);
+            if (signature != null && !member.getModifiers().contains(Modifier.PRIVATE)
+                    && result.putIfAbsent(signature, member) == null) {
+                addMethod(member, methodsByArity);
+            }
+        }
+        PackageElement typePackage = elementUtils.getPackageOf(type);
+        for (TypeElement supertype : directSupertypes(type)) {
+            for (Map.Entry<String, Element> member : availableMembers(supertype).entrySet()) {
+                if (isInherited(member.getValue(), type, typePackage)
+                        && !isOverridden(member.getValue(), methodsByArity, type)
+                        && result.putIfAbsent(member.getKey(), member.getValue()) == null) {
+                    addMethod(member.getValue(), methodsByArity);
+                }
+            }
+        }
+        availableMembers.put(type, result);
+        return result;
+    }
+
+    /**
+     * Adds a member collected for a type to the index of its methods by name and number of parameters, which
+     * narrows the candidates {@link #isOverridden} has to check. Other members are ignored.
+     */
+    private static void addMethod(Element member, Map<String, List<ExecutableElement>> methodsByArity) {
+        if (member.getKind() == ElementKind.METHOD) {
+            ExecutableElement method = (ExecutableElement) member;
+            methodsByArity.computeIfAbsent(arityKey(method), key -> new ArrayList<>()).add(method);
+        }
+    }
+
+    /**
+     * Returns the key of a method in the index of the methods collected for a type, e.g. {@code m1/2}.
+     */
+    private static String arityKey(ExecutableElement method) {
+        return method.getSimpleName() + "/" + method.getParameters().size();
+    }
+
+    /**
+     * Tells if a member of a supertype is inherited by a type of the given package. Interfaces only take over the
+     * public members of {@code java.lang.Object}.
+     */
+    private boolean isInherited(Element member, TypeElement type, PackageElement typePackage) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) && member.getKind() == ElementKind.METHOD
+                && member.getEnclosingElement().getKind().isInterface()) {
+            return false;
+        }
+        if (type.getKind().isInterface() && !member.getEnclosingElement().getKind().isInterface()
+                && !modifiers.contains(Modifier.PUBLIC)) {
+            return false;
+        }
+        boolean packagePrivate = !modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.PROTECTED)
+                && !member.getEnclosingElement().getKind().isInterface();
+        return !packagePrivate || elementUtils.getPackageOf(member).equals(typePackage);
+    }
+
+    /**
+     * Tells if a method of a supertype is overridden by one of the members already collected for a type. The erased
+     * signatures alone do not tell, since a method implementing a generic one may have other parameter types, e.g.
+     * {@code m1(Integer)} implementing {@code m1(T)}. An overriding method has the same name and number of
+     * parameters though, so only the collected methods sharing both are checked.
+     */
+    private boolean isOverridden(Element member, Map<String, List<ExecutableElement>> methodsByArity, TypeElement type) {
+        if (member.getKind() != ElementKind.METHOD) {
+            return false;
+        }
+        ExecutableElement method = (ExecutableElement) member;
+        for (ExecutableElement candidate : methodsByArity.getOrDefault(arityKey(method), List.of())) {
+            if (elementUtils.overrides(candidate, method, type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the signature of a method or field, or {@code null} for other members such as constructors.
+     */
+    private String signature(Element member) {
+        if (member.getKind() == ElementKind.METHOD) {
+            return member.getSimpleName() + ((ExecutableElement) member).getParameters().stream()
+                    .map(parameter -> typeUtils.erasure(parameter.asType()).toString())
+                    .collect(Collectors.joining(",", "(", ")"));
+        } else if (member.getKind() == ElementKind.FIELD && member instanceof VariableElement) {
+            return member.getSimpleName().toString();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the direct supertypes of a type as elements, the superclass first.
+     */
+    private List<TypeElement> directSupertypes(TypeElement type) {
+        List<TypeElement> direct = new ArrayList<>();
+        for (TypeMirror supertype : typeUtils.directSupertypes(type.asType())) {
+            if (supertype.getKind() == TypeKind.DECLARED) {
+                Element element = typeUtils.asElement(supertype);
+                if (element instanceof TypeElement) {
+                    direct.add((TypeElement) element);
+                }
+            }
+        }
+        return direct;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.query;
+
+import io.github.grimch.doclet.prolog.Atom;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologList;
+import io.github.grimch.doclet.prolog.Term;
+import io.github.grimch.doclet.prolog.TokenCounter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Packs the facts an agent needs to work on a type or method into a token budget, so that it does not have to
+ * navigate from the index to the package to the type file by file.
+ * <p>
+ * The facts are ranked by their distance to the target:
+ * <ol>
+ *     <li>the target: the facts of the method, then the fact of its type, or the fact of the type;</li>
+ *     <li>its supertypes: the {@code type_hierarchy} entry of the type, with all its supertypes and inherited
+ *     members, then the facts of the supertypes that are part of the output, the direct ones first;</li>
+ *     <li>the types referenced by the return and parameter types of the method, or of all members of the type;</li>
+ *     <li>the other types of its package, in the order of their names.</li>
+ * </ol>
+ * The facts are taken in this order as long as they fit the remaining budget; a fact that does not fit is left out,
+ * and a smaller, lower ranked fact may still be taken. The closure is read from the precomputed files, i.e. the
+ * type files, {@code package-hierarchy.pl} and {@code package.pl}, through a {@link FactLookup}, and stops reading
+ * once the budget is used up, so packing costs the same on any size of output.
+ * <p>
+ * Tokens are counted by a {@link TokenCounter}, the same way as in the token report of the doclet, unless another
+ * token counter is given.
+ */
+public class ContextPacker {
+    private final FactLookup lookup;
+    private final ToIntFunction<CharSequence> tokenCounter;
+
+    /**
+     * Facts packed for a target, in the order of their rank.
+     */
+    public static final class ContextPack {
+        private final List<String> names = new ArrayList<>();
+        private final List<String> facts = new ArrayList<>();
+        private final int budget;
+        private int tokenCount;
+        private int omittedCount;
+
+        ContextPack(int budget) {
+            this.budget = budget;
+        }
+
+        /**
+         * Returns what the packed facts describe, e.g. {@code java.util.List} for a type or
+         * {@code java.util.List#size} for a method, in the order of the facts.
+         *
+         * @return The names of the packed facts.
+         */
+        public List<String> getNames() {
+            return Collections.unmodifiableList(names);
+        }
+
+        /**
+         * Returns the packed facts, each terminated by a period and a line separator.
+         *
+         * @return The facts.
+         */
+        public List<String> getFacts() {
+            return Collections.unmodifiableList(facts);
+        }
+
+        /**
+         * Returns the number of tokens of the packed facts.
+         *
+         * @return The number of tokens, at most the budget.
+         */
+        public int getTokenCount() {
+            return tokenCount;
+        }
+
+        /**
+         * Returns the token budget the facts were packed into.
+         *
+         * @return The budget.
+         */
+        public int getBudget() {
+            return budget;
+        }
+
+        /**
+         * Returns the number of facts left out because they did not fit the remaining budget.
+         *
+         * @return The number of omitted facts.
+         */
+        public int getOmittedCount() {
+            return omittedCount;
+        }
+
+        /**
+         * Returns the packed facts as a single text, ready to be handed to an agent.
+         *
+         * @return The facts, one after the other.
+         */
+        @Override
+        public String toString() {
+            return String.join("", facts);
+        }
+
+        /**
+         * Adds a fact if it fits the remaining budget.
+         */
+        private void offer(String name, String fact, ToIntFunction<CharSequence> tokenCounter) {
+            int tokens = tokenCounter.applyAsInt(fact);
+            if (tokenCount + tokens > budget) {
+                omittedCount++;
+                return;
+            }
+            names.add(name);
+            facts.add(fact);
+            tokenCount += tokens;
+        }
+
+        private boolean isFull() {
+            return tokenCount >= budget;
+        }
+    }
+
+    /**
+     * Constructs a packer counting the tokens with a {@link TokenCounter} without a vocabulary.
+     *
+     * @param lookup The lookup the facts are read through.
+     */
+    public ContextPacker(FactLookup lookup) {
+        this(lookup, new TokenCounter()::count);
+    }
+
+    /**
+     * Constructs a packer with the given token counter.
+     *
+     * @param lookup       The lookup the facts are read through.
+     * @param tokenCounter Counts the tokens of a fact.
+     */
+    public ContextPacker(FactLookup lookup, ToIntFunction<CharSequence> tokenCounter) {
+        this.lookup = lookup;
+        this.tokenCounter = tokenCounter;
+    }
+
+    /**
+     * Packs the facts of a type or method into a token budget.
+     *
+     * @param mode   {@code minimal} or {@code full}.
+     * @param target The qualified name of a type, e.g. {@code java.util.List}, or of a method, e.g.
+     *               {@code java.util.List#size}. Overloaded methods are packed together.
+     * @param budget The maximum number of tokens.
+     * @return The packed facts, or {@code null} if there is no such type or method.
+     * @throws IOException If a file cannot be read or parsed.
+     */
+    public ContextPack pack(String mode, String target, int budget) throws IOException {
+        int separator = target.indexOf('#');
+        String typeName = separator < 0 ? target : target.substring(0, separator);
+        String memberName = separator < 0 ? null : target.substring(separator + 1);
+        byte[] typeContent = lookup.getType(mode, typeName);
+        Fact type = FactLookup.parse(typeContent);
+        if (type == null) {
+            return null;
+        }
+        String simpleName = lookup.atomArgument(type, "name");
+        String packageName = lookup.atomArgument(type, "package_name");
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        List<Fact> members = memberName == null ? lookup.getMembers(type) : lookup.getMembers(type).stream()
+                .filter(member -> memberName.equals(lookup.atomArgument(member, "name")))
+                .collect(Collectors.toList());
+        if (memberName != null && members.isEmpty()) {
+            return null;
+        }
+
+        ContextPack pack = new ContextPack(budget);
+        Set<String> packedTypes = new LinkedHashSet<>();
+        packedTypes.add(qualifiedName);
+        if (memberName != null) {
+            for (Fact member : members) {
+                pack.offer(qualifiedName + "#" + memberName, member + ".\n", tokenCounter);
+            }
+        }
+        pack.offer(qualifiedName, new String(typeContent, StandardCharsets.UTF_8), tokenCounter);
+
+        // The supertypes, from the precomputed hierarchy
+        Fact hierarchy = lookup.getHierarchy(mode, packageName, simpleName);
+        if (hierarchy != null) {
+            pack.offer(qualifiedName, hierarchy + ".\n", tokenCounter);
+            for (Term supertype : elements(hierarchy.getArgument(1))) {
+                offerType(pack, mode, ((Atom) supertype).getValue(), packedTypes);
+            }
+        }
+
+        // The return and parameter types
+        Set<String> referencedTypes = new LinkedHashSet<>();
+        for (Fact member : members) {
+            for (String argumentName : List.of("return_type", "parameters", "type")) {
+                int index = lookup.getSchema().getArgumentIndex(member.getPredicate(), argumentName);
+                if (index >= 0 && index < member.getArgumentCount()) {
+                    collectDeclaredTypes(member.getArgument(index), referencedTypes);
+                }
+            }
+        }
+        for (String referencedType : referencedTypes) {
+            offerType(pack, mode, referencedType, packedTypes);
+        }
+
+        // The package siblings
+        Fact packageFact = FactLookup.parse(lookup.getPackage(mode, packageName));
+        if (packageFact != null && packageFact.getArgumentCount() == 2) {
+            for (Term sibling : elements(packageFact.getArgument(1))) {
+                if (sibling instanceof Fact) {
+                    offerType(pack, mode, packageName + "." + lookup.atomArgument((Fact) sibling, "name"), packedTypes);
+                }
+            }
+        }
+        return pack;
+    }
+
+    /**
+     * Offers the fact of a type that is part of the output and not packed yet.
+     */
+    private void offerType(ContextPack pack, String mode, String qualifiedName, Set<String> packedTypes) throws IOException {
+        if (pack.isFull() || !packedTypes.add(qualifiedName)) {
+            return;
+        }
+        byte[] content = lookup.getType(mode, qualifiedName);
+        if (content != null) {
+            pack.offer(qualifiedName, new String(content, StandardCharsets.UTF_8), tokenCounter);
+        }
+    }
+
+    /**
+     * Collects the qualified names of all {@code declared_type} terms within a term, including type arguments.
+     */
+    private static void collectDeclaredTypes(Term term, Set<String> qualifiedNames) {
+        if (term instanceof PrologList) {
+            for (Term element : ((PrologList) term).getElements()) {
+                collectDeclaredTypes(element, qualifiedNames);
+            }
+        } else if (term instanceof Fact) {
+            Fact fact = (Fact) term;
+            if (fact.getPredicate().equals("declared_type") && fact.getArgumentCount() > 0 && fact.getArgument(0) instanceof Atom) {
+                qualifiedNames.add(((Atom) fact.getArgument(0)).getValue());
+            }
+            for (Term argument : fact.getArguments()) {
+                collectDeclaredTypes(argument, qualifiedNames);
+            }
+        }
+    }
+
+    private static List<Term> elements(Term term) {
+        return term instanceof PrologList ? ((PrologList) term).getElements() : List.of();
+    }
+
+    /**
+     * Packs the facts of a type or method from the command line and prints them.
+     *
+     * @param args The output directory or archive, the qualified name of the type or method and the token budget,
+     *             optionally followed by {@code -mode full} and {@code -tokenVocabulary <file>}.
+     * @throws IOException If the source cannot be opened or a file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length % 2 == 0) {
+            System.err.println("Usage: ContextPacker <directory|archive> <type|type#method> <budget> [-mode minimal|full] [-tokenVocabulary <file>]");
+            System.exit(1);
+        }
+        String mode = "minimal";
+        TokenCounter tokenCounter = new TokenCounter();
+        for (int i = 3; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "-mode":
+                    mode = args[i + 1];
+                    break;
+                case "-tokenVocabulary":
+                    tokenCounter = TokenCounter.load(Paths.get(args[i + 1]));
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        try (FactSource source = new FactSource(Paths.get(args[0]))) {
+            FactLookup lookup = new FactLookup(new FactCache(Long.MAX_VALUE, source), Schema.load());
+            ContextPack pack = new ContextPacker(lookup, tokenCounter::count).pack(mode, args[1], Integer.parseInt(args[2]));
+            if (pack == null) {
+                System.err.println("Not found: " + args[1]);
+                System.exit(1);
+            }
+            System.out.print(pack);
+            System.err.printf("%d facts, %d of %d tokens, %d facts omitted.%n",
+                    pack.getFacts().size(), pack.getTokenCount(), pack.getBudget(), pack.getOmittedCount());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.query;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps the contents of recently read files in memory, up to a maximum number of bytes, evicting the least recently
+ * used files first.
+ * <p>
+ * The files are read through a {@link Loader}, so the cache does not care whether they come from an output directory
+ * or an archive. Missing files are not cached, so a file appears as soon as it is generated. A file larger than the
+ * whole cache is returned but not kept.
+ * <p>
+ * A file that changes is dropped with {@link #invalidate(String)}. A file being read while it is invalidated is not
+ * kept either, since its contents may predate the change. The cache can be used from any number of threads; the
+ * files are read outside of its lock.
+ */
+public class FactCache {
+    private final Loader loader;
+    private final long maxSize;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long generation;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Reads a file on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Reads a file.
+         *
+         * @param path The path of the file, relative to the output directory and separated by {@code /}.
+         * @return The contents of the file, or {@code null} if there is no such file.
+         * @throws IOException If the file exists but cannot be read.
+         */
+        byte[] load(String path) throws IOException;
+    }
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param maxSize The maximum number of bytes kept in memory.
+     * @param loader  The loader reading the files on a cache miss.
+     */
+    public FactCache(long maxSize, Loader loader) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Negative cache size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the contents of a file, reading it if it is not cached.
+     *
+     * @param path The path of the file, relative to the output directory and separated by {@code /}.
+     * @return The contents of the file, or {@code null} if there is no such file. The array must not be modified.
+     * @throws IOException If the file exists but cannot be read.
+     */
+    public byte[] get(String path) throws IOException {
+        long loadGeneration;
+        synchronized (this) {
+            byte[] content = entries.get(path);
+            if (content != null) {
+                hitCount++;
+                return content;
+            }
+            missCount++;
+            loadGeneration = generation;
+        }
+        byte[] content = loader.load(path);
+        if (content != null) {
+            put(path, content, loadGeneration);
+        }
+        return content;
+    }
+
+    /**
+     * Keeps a file read by {@link #get(String)}, unless the cache was invalidated while it was read.
+     */
+    private synchronized void put(String path, byte[] content, long loadGeneration) {
+        if (loadGeneration != generation || content.length > maxSize) {
+            return;
+        }
+        byte[] previous = entries.put(path, content);
+        size += content.length - (previous != null ? previous.length : 0);
+        Iterator<byte[]> eldest = entries.values().iterator();
+        while (size > maxSize) {
+            size -= eldest.next().length;
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Drops a file, e.g. because it was regenerated.
+     *
+     * @param path The path of the file, relative to the output directory and separated by {@code /}.
+     */
+    public synchronized void invalidate(String path) {
+        generation++;
+        byte[] previous = entries.remove(path);
+        if (previous != null) {
+            size -= previous.length;
+        }
+    }
+
+    /**
+     * Drops all files, e.g. because the archive they were read from was replaced.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of cached files.
+     *
+     * @return The number of files.
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of bytes currently kept in memory.
+     *
+     * @return The size of the cached files.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of bytes kept in memory.
+     *
+     * @return The size the cache is limited to.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of lookups answered from memory.
+     *
+     * @return The number of hits.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that had to read the file.
+     *
+     * @return The number of misses.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of files dropped to stay within the maximum size.
+     *
+     * @return The number of evictions.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.query;
+
+import io.github.grimch.doclet.prolog.Atom;
+import io.github.grimch.doclet.prolog.DocletPrologWriter;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologInteger;
+import io.github.grimch.doclet.prolog.PrologList;
+import io.github.grimch.doclet.prolog.PrologParser;
+import io.github.grimch.doclet.prolog.Term;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Looks up the files and facts of a LogiDoclet output by package, type, member or index, reading them through a
+ * {@link FactCache}. Only the files needed for a lookup are read, so a lookup costs the same on any size of output.
+ * <p>
+ * Every lookup takes the mode of the output, {@code minimal} or {@code full}. The names are checked before they are
+ * turned into paths, so a lookup cannot read files outside the output.
+ */
+public class FactLookup {
+    private static final Pattern QUALIFIED_NAME = Pattern.compile("[\\p{L}\\p{N}_$]+(\\.[\\p{L}\\p{N}_$]+)*");
+    private static final Pattern NAME = Pattern.compile("[\\p{L}\\p{N}_$<>-]+");
+    private static final List<String> MODES = List.of("minimal", "full");
+
+    private final FactCache cache;
+    private final Schema schema;
+
+    /**
+     * Constructs a lookup over the files of a cache.
+     *
+     * @param cache  The cache the files are read through.
+     * @param schema The schema telling where the members of a type are.
+     */
+    public FactLookup(FactCache cache, Schema schema) {
+        this.cache = cache;
+        this.schema = schema;
+    }
+
+    /**
+     * Returns the schema telling where the arguments of the facts are.
+     *
+     * @return The schema.
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the summary of a package.
+     *
+     * @param mode        {@code minimal} or {@code full}.
+     * @param packageName The qualified name of the package.
+     * @return The {@code package.pl} file, or {@code null} if there is no such package.
+     * @throws IOException If the file cannot be read.
+     */
+    public byte[] getPackage(String mode, String packageName) throws IOException {
+        checkMode(mode);
+        checkQualifiedName(packageName);
+        return cache.get(packagePath(mode, packageName) + "package.pl");
+    }
+
+    /**
+     * Returns the fact of a type. As the type files are named after the simple name of the type, the qualified name
+     * of a nested type may be given with or without the names of the enclosing types, e.g.
+     * {@code java.util.Map.Entry} or {@code java.util.Entry}. A nested type sharing its simple name with another
+     * type of its package has a file named after its name relative to the package, e.g. {@code Map.Entry.pl}, which
+     * is tried first and is only found by the full name.
+     *
+     * @param mode          {@code minimal} or {@code full}.
+     * @param qualifiedName The qualified name of the type.
+     * @return The type fact followed by a line separator, or {@code null} if there is no such type.
+     * @throws IOException If a file cannot be read or a bundle index cannot be parsed.
+     */
+    public byte[] getType(String mode, String qualifiedName) throws IOException {
+        checkMode(mode);
+        checkQualifiedName(qualifiedName);
+        String typeName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+        String packageName = qualifiedName;
+        while (packageName.lastIndexOf('.') > 0) {
+            packageName = packageName.substring(0, packageName.lastIndexOf('.'));
+            String packagePath = packagePath(mode, packageName);
+            String relativeName = qualifiedName.substring(packageName.length() + 1);
+            byte[] content = relativeName.equals(typeName) ? null : getTypeFile(packagePath, relativeName);
+            if (content == null) {
+                content = getTypeFile(packagePath, typeName);
+            }
+            if (content != null) {
+                return content;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the file of a type, or the type from the package bundle.
+     */
+    private byte[] getTypeFile(String packagePath, String fileName) throws IOException {
+        byte[] content = cache.get(packagePath + fileName + ".pl");
+        return content != null ? content : getBundledType(packagePath, fileName);
+    }
+
+    /**
+     * Returns the fact of a type, parsed.
+     *
+     * @param mode          {@code minimal} or {@code full}.
+     * @param qualifiedName The qualified name of the type, see {@link #getType(String, String)}.
+     * @return The type fact, or {@code null} if there is no such type.
+     * @throws IOException If the type file cannot be read or parsed.
+     */
+    public Fact getTypeFact(String mode, String qualifiedName) throws IOException {
+        return parse(getType(mode, qualifiedName));
+    }
+
+    /**
+     * Returns the facts of the members of a type with the given name, e.g. all overloads of a method.
+     *
+     * @param mode          {@code minimal} or {@code full}.
+     * @param qualifiedName The qualified name of the type, see {@link #getType(String, String)}.
+     * @param memberName    The simple name of the member, e.g. {@code <init>} for the constructors.
+     * @return The member facts, or an empty list if the type or member does not exist.
+     * @throws IOException If the type file cannot be read or parsed.
+     */
+    public List<Fact> getMembers(String mode, String qualifiedName, String memberName) throws IOException {
+        Fact type = getTypeFact(mode, qualifiedName);
+        if (type == null) {
+            return List.of();
+        }
+        return getMembers(type).stream()
+                .filter(member -> memberName.equals(atomArgument(member, "name")))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the facts of all members of a type fact.
+     *
+     * @param type The type fact.
+     * @return The member facts, in the order of the type fact.
+     */
+    public List<Fact> getMembers(Fact type) {
+        int members = schema.getArgumentIndex(type.getPredicate(), "members");
+        if (members < 0 || members >= type.getArgumentCount() || !(type.getArgument(members) instanceof PrologList)) {
+            return List.of();
+        }
+        return ((PrologList) type.getArgument(members)).getElements().stream()
+                .filter(member -> member instanceof Fact)
+                .map(member -> (Fact) member)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the hierarchy entry of a type from its package's {@value DocletPrologWriter#HIERARCHY_FILE_NAME} file,
+     * i.e. its transitive supertypes and inherited members.
+     *
+     * @param mode        {@code minimal} or {@code full}.
+     * @param packageName The qualified name of the package of the type.
+     * @param typeName    The simple name of the type.
+     * @return The {@code type_hierarchy} fact, or {@code null} if there is no such type.
+     * @throws IOException If the hierarchy file cannot be read or parsed.
+     */
+    public Fact getHierarchy(String mode, String packageName, String typeName) throws IOException {
+        checkMode(mode);
+        checkQualifiedName(packageName);
+        Fact hierarchy = parse(cache.get(packagePath(mode, packageName) + DocletPrologWriter.HIERARCHY_FILE_NAME + ".pl"));
+        if (hierarchy == null || hierarchy.getArgumentCount() != 2 || !(hierarchy.getArgument(1) instanceof PrologList)) {
+            return null;
+        }
+        for (Term entry : ((PrologList) hierarchy.getArgument(1)).getElements()) {
+            if (entry instanceof Fact && typeName.equals(atomArgument((Fact) entry, 0))) {
+                return (Fact) entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an index file of the output, e.g. {@code package_index}, {@code module_index} or
+     * {@code subtype_index}.
+     *
+     * @param mode      {@code minimal} or {@code full}.
+     * @param indexName The base name of the index file.
+     * @return The index file, or {@code null} if there is no such index.
+     * @throws IOException If the file cannot be read.
+     */
+    public byte[] getIndex(String mode, String indexName) throws IOException {
+        checkMode(mode);
+        if (!NAME.matcher(indexName).matches()) {
+            throw new IllegalArgumentException("Invalid index name: " + indexName);
+        }
+        return cache.get(mode + "/" + indexName + ".pl");
+    }
+
+    /**
+     * Returns the value of an atom argument, found by its name in the schema.
+     *
+     * @param fact         The fact.
+     * @param argumentName The name of the argument, e.g. {@code name}.
+     * @return The value of the atom, or {@code null} if the fact has no such atom argument.
+     */
+    public String atomArgument(Fact fact, String argumentName) {
+        return atomArgument(fact, schema.getArgumentIndex(fact.getPredicate(), argumentName));
+    }
+
+    /**
+     * Parses the first fact of a file.
+     *
+     * @param content The contents of the file, or {@code null}.
+     * @return The first fact, or {@code null} if there is no file or no fact.
+     * @throws IOException If the file cannot be parsed.
+     */
+    public static Fact parse(byte[] content) throws IOException {
+        if (content == null) {
+            return null;
+        }
+        try (PrologParser parser = new PrologParser(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            return parser.next();
+        }
+    }
+
+    /**
+     * Reads the type fact from a package bundle, using the offsets in the bundle index.
+     */
+    private byte[] getBundledType(String packagePath, String typeName) throws IOException {
+        Fact bundleIndex = parse(cache.get(packagePath + DocletPrologWriter.BUNDLE_INDEX_FILE_NAME + ".pl"));
+        if (bundleIndex == null || bundleIndex.getArgumentCount() != 2 || !(bundleIndex.getArgument(1) instanceof PrologList)) {
+            return null;
+        }
+        for (Term entry : ((PrologList) bundleIndex.getArgument(1)).getElements()) {
+            Fact typeOffset = (Fact) entry;
+            if (typeName.equals(atomArgument(typeOffset, 0))) {
+                byte[] bundle = cache.get(packagePath + DocletPrologWriter.BUNDLE_FILE_NAME + ".pl");
+                int offset = (int) ((PrologInteger) typeOffset.getArgument(1)).getValue();
+                int length = (int) ((PrologInteger) typeOffset.getArgument(2)).getValue();
+                if (bundle == null || offset + length > bundle.length) {
+                    return null;
+                }
+                return Arrays.copyOfRange(bundle, offset, offset + length);
+            }
+        }
+        return null;
+    }
+
+    private static String atomArgument(Fact fact, int index) {
+        Term argument = index >= 0 && index < fact.getArgumentCount() ? fact.getArgument(index) : null;
+        return argument instanceof Atom ? ((Atom) argument).getValue() : null;
+    }
+
+    private static String packagePath(String mode, String packageName) {
+        return mode + "/" + packageName.replace('.', '/') + "/";
+    }
+
+    private static void checkMode(String mode) {
+        if (!MODES.contains(mode)) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    private static void checkQualifiedName(String qualifiedName) {
+        if (!QUALIFIED_NAME.matcher(qualifiedName).matches()) {
+            throw new IllegalArgumentException("Invalid name: " + qualifiedName);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.query;
+
+import io.github.grimch.doclet.prolog.Atom;
+import io.github.grimch.doclet.prolog.AtomPool;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologList;
+import io.github.grimch.doclet.prolog.PrologParser;
+import io.github.grimch.doclet.prolog.ReverseIndex;
+import io.github.grimch.doclet.prolog.Term;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Answers the questions asked about a code base from its generated type facts, through hash indexes built once.
+ * <p>
+ * The engine indexes every type fact by its fully qualified name and builds reverse indexes from a referenced type
+ * to the types extending it, the types implementing it, the methods returning it, and the types and members carrying
+ * it as an annotation. A query is then a single lookup instead of a scan over every type file.
+ * <p>
+ * A type fact only carries the package name and the simple name of its type. The name of a nested type is taken from
+ * the {@code nested_type_index} written next to the type files, e.g. {@code java.util.Map.Entry}, so that every name
+ * found in the indexes and returned by a query is also a key of {@link #getType(String)}. Without that index, a
+ * nested type is named by its package and simple name.
+ * <p>
+ * Which arguments are read is taken from the {@link Schema}: the type predicates are the alternatives of the
+ * {@code type_definition_term}, and the arguments are found by their names {@code name}, {@code package_name},
+ * {@code extends}, {@code implements}, {@code members}, {@code annotations} and {@code return_type}. Facts whose
+ * arity differs from the schema are ignored.
+ * <p>
+ * All results are sorted and unmodifiable. The engine is immutable once built, so it can be queried from any
+ * number of threads.
+ */
+public class FactQueryEngine {
+    private final Schema schema;
+    private final Map<String, Fact> types = new HashMap<>();
+    private final Map<String, List<String>> subtypes = new HashMap<>();
+    private final Map<String, List<String>> implementors = new HashMap<>();
+    private final Map<String, List<String>> annotatedTypes = new HashMap<>();
+    private final Map<String, List<Member>> methodsByReturnType = new HashMap<>();
+    private final Map<String, List<Member>> annotatedMembers = new HashMap<>();
+
+    /**
+     * A member found by a query, together with the type declaring it.
+     */
+    public static final class Member {
+        private final String declaringType;
+        private final Fact fact;
+
+        Member(String declaringType, Fact fact) {
+            this.declaringType = declaringType;
+            this.fact = fact;
+        }
+
+        /**
+         * Returns the qualified name of the type declaring the member.
+         *
+         * @return The declaring type.
+         */
+        public String getDeclaringType() {
+            return declaringType;
+        }
+
+        /**
+         * Returns the fact of the member, e.g. a {@code method} fact.
+         *
+         * @return The member fact.
+         */
+        public Fact getFact() {
+            return fact;
+        }
+
+        /**
+         * Returns the simple name of the member.
+         *
+         * @return The name.
+         */
+        public String getName() {
+            return fact.getArgument(0) instanceof Atom ? ((Atom) fact.getArgument(0)).getValue() : fact.getArgument(0).toString();
+        }
+
+        /**
+         * Returns the declaring type and the name of the member, e.g. {@code java.util.List#size}.
+         *
+         * @return A readable reference to the member.
+         */
+        @Override
+        public String toString() {
+            return declaringType + "#" + getName();
+        }
+    }
+
+    /**
+     * Builds the indexes over the given facts. Facts that do not describe a type are ignored.
+     *
+     * @param schema The schema telling where the indexed arguments are.
+     * @param facts  The facts to index.
+     */
+    public FactQueryEngine(Schema schema, Iterable<Fact> facts) {
+        this(schema, facts, Map.of());
+    }
+
+    /**
+     * Builds the indexes over the given facts, naming the type facts read from a file named after the type's name
+     * relative to its package, e.g. {@code B.Builder.pl}, after that file. This tells apart nested types sharing a
+     * simple name, which their facts alone do not.
+     */
+    private FactQueryEngine(Schema schema, Iterable<Fact> facts, Map<Fact, String> relativeNames) {
+        this.schema = schema;
+        Map<String, Fact> typeFacts = new HashMap<>();
+        Map<String, Fact> relativelyNamedTypes = new HashMap<>();
+        Map<String, String> enclosingTypes = new HashMap<>();
+        for (Fact fact : facts) {
+            if (schema.getTypePredicates().contains(fact.getPredicate())
+                    && schema.getArity(fact.getPredicate()) == fact.getArgumentCount()) {
+                String name = atomArgument(fact, schema.getArgumentIndex(fact.getPredicate(), "name"));
+                String packageName = atomArgument(fact, schema.getArgumentIndex(fact.getPredicate(), "package_name"));
+                String relativeName = relativeNames.get(fact);
+                if (name != null && packageName != null && relativeName != null) {
+                    relativelyNamedTypes.put(packageName.isEmpty() ? relativeName : packageName + "." + relativeName, fact);
+                } else if (name != null && packageName != null) {
+                    typeFacts.put(packageName.isEmpty() ? name : packageName + "." + name, fact);
+                }
+            } else if (fact.getPredicate().equals(ReverseIndex.NESTED_TYPE_INDEX) && fact.getArgumentCount() == 1) {
+                addNestedTypes(fact, enclosingTypes);
+            }
+        }
+        Map<String, String> nestedTypeNames = nestedTypeNames(typeFacts, enclosingTypes, relativelyNamedTypes.keySet());
+        typeFacts.forEach((name, fact) -> addType(nestedTypeNames.getOrDefault(name, name), fact));
+        relativelyNamedTypes.forEach(this::addType);
+        Comparator<Member> memberOrder = Comparator.comparing(Member::getDeclaringType).thenComparing(Member::getName);
+        sortValues(subtypes, Comparator.naturalOrder());
+        sortValues(implementors, Comparator.naturalOrder());
+        sortValues(annotatedTypes, Comparator.naturalOrder());
+        sortValues(methodsByReturnType, memberOrder);
+        sortValues(annotatedMembers, memberOrder);
+    }
+
+    /**
+     * Reads all {@code .pl} files below an output directory, e.g. the {@code full} or {@code minimal} output, and
+     * builds the indexes over their type facts, using the schema shipped with the doclet. A type file named after the
+     * type's name relative to its package, e.g. {@code B.Builder.pl}, gives the name of its type.
+     *
+     * @param directory The output directory.
+     * @return The query engine.
+     * @throws IOException If a file cannot be read or parsed.
+     */
+    public static FactQueryEngine load(Path directory) throws IOException {
+        AtomPool atoms = new AtomPool();
+        List<Fact> facts = new ArrayList<>();
+        Map<Fact, String> relativeNames = new IdentityHashMap<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".pl") && Files.isRegularFile(f)).collect(Collectors.toList())) {
+                String fileName = file.getFileName().toString();
+                String relativeName = fileName.substring(0, fileName.length() - ".pl".length());
+                try (PrologParser parser = new PrologParser(Files.newBufferedReader(file, StandardCharsets.UTF_8), atoms)) {
+                    for (Fact fact : parser.readAll()) {
+                        facts.add(fact);
+                        if (relativeName.indexOf('.') > 0) {
+                            relativeNames.put(fact, relativeName);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new IOException(file + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new FactQueryEngine(Schema.load(), facts, relativeNames);
+    }
+
+    /**
+     * Returns the fact of a type.
+     *
+     * @param qualifiedName The fully qualified name of the type, e.g. {@code java.util.Map.Entry} for a nested type.
+     * @return The type fact, or {@code null} if there is no such type.
+     */
+    public Fact getType(String qualifiedName) {
+        return types.get(qualifiedName);
+    }
+
+    /**
+     * Returns the number of indexed types.
+     *
+     * @return The number of types.
+     */
+    public int getTypeCount() {
+        return types.size();
+    }
+
+    /**
+     * Returns the types directly extending a type: the classes naming it as their superclass and the interfaces
+     * extending it.
+     *
+     * @param qualifiedName The qualified name of the supertype.
+     * @return The qualified names of the direct subtypes.
+     */
+    public List<String> getSubtypes(String qualifiedName) {
+        return subtypes.getOrDefault(qualifiedName, List.of());
+    }
+
+    /**
+     * Returns the classes, enums and records directly implementing an interface.
+     *
+     * @param qualifiedName The qualified name of the interface.
+     * @return The qualified names of the implementing types.
+     */
+    public List<String> getImplementors(String qualifiedName) {
+        return implementors.getOrDefault(qualifiedName, List.of());
+    }
+
+    /**
+     * Returns the methods whose return type is the given declared type, whatever its type arguments.
+     *
+     * @param qualifiedName The qualified name of the return type.
+     * @return The methods returning the type.
+     */
+    public List<Member> getMethodsReturning(String qualifiedName) {
+        return methodsByReturnType.getOrDefault(qualifiedName, List.of());
+    }
+
+    /**
+     * Returns the types carrying an annotation on their declaration.
+     *
+     * @param qualifiedName The qualified name of the annotation type.
+     * @return The qualified names of the annotated types.
+     */
+    public List<String> getAnnotatedTypes(String qualifiedName) {
+        return annotatedTypes.getOrDefault(qualifiedName, List.of());
+    }
+
+    /**
+     * Returns the members carrying an annotation on their declaration.
+     *
+     * @param qualifiedName The qualified name of the annotation type.
+     * @return The annotated members.
+     */
+    public List<Member> getAnnotatedMembers(String qualifiedName) {
+        return annotatedMembers.getOrDefault(qualifiedName, List.of());
+    }
+
+    /**
+     * Records the enclosing type of every nested type listed in a {@code nested_type_index} fact.
+     */
+    private static void addNestedTypes(Fact index, Map<String, String> enclosingTypes) {
+        for (Term entry : elements(index.getArgument(0))) {
+            Fact nestedTypes = (Fact) entry;
+            String enclosingType = atomArgument(nestedTypes, 0);
+            if (enclosingType == null) {
+                continue;
+            }
+            for (Term nestedType : elements(argument(nestedTypes, 1))) {
+                if (nestedType instanceof Atom) {
+                    enclosingTypes.put(((Atom) nestedType).getValue(), enclosingType);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps the package and simple name of every nested type to its fully qualified name. The package of a nested
+     * type is the package of its outermost enclosing type, whose qualified name is its package and simple name.
+     * Nested types already named by their file are left out.
+     */
+    private Map<String, String> nestedTypeNames(Map<String, Fact> typeFacts, Map<String, String> enclosingTypes,
+                                                Set<String> namedTypes) {
+        Map<String, String> names = new HashMap<>();
+        enclosingTypes.forEach((nestedType, enclosingType) -> {
+            if (namedTypes.contains(nestedType)) {
+                return;
+            }
+            String outermostType = enclosingType;
+            while (enclosingTypes.containsKey(outermostType)) {
+                outermostType = enclosingTypes.get(outermostType);
+            }
+            Fact outermost = typeFacts.get(outermostType);
+            if (outermost == null) {
+                return;
+            }
+            String packageName = atomArgument(outermost, schema.getArgumentIndex(outermost.getPredicate(), "package_name"));
+            String simpleName = nestedType.substring(enclosingType.length() + 1);
+            names.put(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, nestedType);
+        });
+        return names;
+    }
+
+    /**
+     * Adds a type fact to all indexes.
+     */
+    private void addType(String qualifiedName, Fact type) {
+        String predicate = type.getPredicate();
+        types.put(qualifiedName, type);
+
+        // A class has a single extends fact, an interface a list of the interfaces it extends
+        for (Term supertype : elements(argument(type, schema.getArgumentIndex(predicate, "extends")))) {
+            add(subtypes, referencedType(supertype), qualifiedName);
+        }
+        for (Term implemented : elements(argument(type, schema.getArgumentIndex(predicate, "implements")))) {
+            add(implementors, referencedType(implemented), qualifiedName);
+        }
+        for (Term annotation : elements(argument(type, schema.getArgumentIndex(predicate, "annotations")))) {
+            add(annotatedTypes, referencedType(annotation), qualifiedName);
+        }
+        for (Term member : elements(argument(type, schema.getArgumentIndex(predicate, "members")))) {
+            if (member instanceof Fact) {
+                addMember(qualifiedName, (Fact) member);
+            }
+        }
+    }
+
+    /**
+     * Adds a member fact to the method and annotation indexes.
+     */
+    private void addMember(String declaringType, Fact member) {
+        String predicate = member.getPredicate();
+        if (schema.getArity(predicate) != member.getArgumentCount()) {
+            return;
+        }
+        Member match = new Member(declaringType, member);
+        Term returnType = argument(member, schema.getArgumentIndex(predicate, "return_type"));
+        if (returnType != null) {
+            add(methodsByReturnType, referencedType(returnType), match);
+        }
+        for (Term annotation : elements(argument(member, schema.getArgumentIndex(predicate, "annotations")))) {
+            add(annotatedMembers, referencedType(annotation), match);
+        }
+    }
+
+    /**
+     * Returns the qualified name of the type a term refers to: the {@code qualified_name} of a
+     * {@code declared_type}, the {@code name} of an {@code annotation}, or the type referred to by the
+     * {@code target_type} of an {@code extends} or {@code implements} fact.
+     *
+     * @param term The term.
+     * @return The qualified name, or {@code null} for primitive, array and other types.
+     */
+    private String referencedType(Term term) {
+        if (!(term instanceof Fact)) {
+            return null;
+        }
+        Fact fact = (Fact) term;
+        String predicate = fact.getPredicate();
+        if (schema.getArity(predicate) != fact.getArgumentCount()) {
+            return null;
+        }
+        int target = schema.getArgumentIndex(predicate, "target_type");
+        if (target >= 0) {
+            return referencedType(fact.getArgument(target));
+        }
+        int name = schema.getArgumentIndex(predicate, predicate.equals("annotation") ? "name" : "qualified_name");
+        return atomArgument(fact, name);
+    }
+
+    private static Term argument(Fact fact, int index) {
+        return index >= 0 && index < fact.getArgumentCount() ? fact.getArgument(index) : null;
+    }
+
+    private static String atomArgument(Fact fact, int index) {
+        Term argument = argument(fact, index);
+        return argument instanceof Atom ? ((Atom) argument).getValue() : null;
+    }
+
+    /**
+     * Returns the elements of a list argument, or the argument itself if it is a single term.
+     */
+    private static List<Term> elements(Term argument) {
+        if (argument instanceof PrologList) {
+            return ((PrologList) argument).getElements();
+        }
+        return argument instanceof Fact ? List.of(argument) : List.of();
+    }
+
+    private static <T> void add(Map<String, List<T>> index, String key, T value) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+    }
+
+    private static <T> void sortValues(Map<String, List<T>> index, Comparator<? super T> order) {
+        index.replaceAll((key, values) -> {
+            values.sort(order);
+            return Collections.unmodifiableList(values);
+        });
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.query;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.grimch.doclet.prolog.Atom;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologInteger;
+import io.github.grimch.doclet.prolog.TokenCounter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serves the facts of a LogiDoclet output to local tools over HTTP, so that an agent asking many questions does not
+ * read every file from disk again.
+ * <p>
+ * The source is the output directory of a run, i.e. the directory given with {@code -d}, or the archive written
+ * with {@code -archive}. The files are read through a {@link FactCache} limited to a maximum number of bytes. The
+ * source is watched for changes: a regenerated file is dropped from the cache, a rewritten archive drops all of
+ * them, so a running server always answers with the latest output.
+ * <p>
+ * The server only listens on the loopback address and answers {@code GET} requests with the facts as text:
+ * <ul>
+ *     <li>{@code /package/<package>} the package summary, {@code package.pl};</li>
+ *     <li>{@code /type/<type>} the fact of a type, by the package name and the simple name of the type, also
+ *     from a package bundle;</li>
+ *     <li>{@code /member/<type>/<member>} the facts of the members of a type with the given name, one per line;</li>
+ *     <li>{@code /index/<index>} an index file, e.g. {@code package_index} or {@code subtype_index};</li>
+ *     <li>{@code /context/<type>} or {@code /context/<type>/<method>} with {@code ?budget=<tokens>} the facts
+ *     packed for the type or method by a {@link ContextPacker};</li>
+ *     <li>{@code /stats} the counters of the cache as {@code cache_counter/2} facts.</li>
+ * </ul>
+ * The facts are taken from the {@code minimal} output, unless the query asks for {@code mode=full}. A missing fact
+ * is answered with status 404, a malformed request with 400.
+ * <p>
+ * The server is started from the command line with
+ * {@code java -cp logidoclet.jar io.github.grimch.doclet.query.FactServer <directory|archive> [-port <port>]
+ * [-cacheSize <megabytes>] [-tokenVocabulary <file>]}.
+ */
+public class FactServer implements Closeable {
+    /**
+     * The port the server listens on if none is given on the command line.
+     */
+    public static final int DEFAULT_PORT = 8765;
+
+    /**
+     * The number of megabytes cached if no size is given on the command line.
+     */
+    public static final long DEFAULT_CACHE_MEGABYTES = 64;
+
+    private final FactSource source;
+    private final FactCache cache;
+    private final FactLookup lookup;
+    private final ContextPacker packer;
+    private final HttpServer server;
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    /**
+     * Constructs a server for an output directory or archive, listening on the loopback address. The server does
+     * not answer requests before it is started.
+     *
+     * @param source    The output directory, or the archive written with {@code -archive}.
+     * @param port      The port to listen on, or 0 for any free port, see {@link #getPort()}.
+     * @param cacheSize The maximum number of bytes kept in memory.
+     * @throws IOException If the source cannot be opened or the port cannot be bound.
+     */
+    public FactServer(Path source, int port, long cacheSize) throws IOException {
+        this(source, port, cacheSize, new TokenCounter());
+    }
+
+    /**
+     * Constructs a server for an output directory or archive, listening on the loopback address, which packs the
+     * facts for {@code /context} with the given token counter. The server does not answer requests before it is
+     * started.
+     *
+     * @param source       The output directory, or the archive written with {@code -archive}.
+     * @param port         The port to listen on, or 0 for any free port, see {@link #getPort()}.
+     * @param cacheSize    The maximum number of bytes kept in memory.
+     * @param tokenCounter Counts the tokens of the packed facts against the budget.
+     * @throws IOException If the source cannot be opened or the port cannot be bound.
+     */
+    public FactServer(Path source, int port, long cacheSize, TokenCounter tokenCounter) throws IOException {
+        this.source = new FactSource(source);
+        this.cache = new FactCache(cacheSize, this.source);
+        this.lookup = new FactLookup(cache, Schema.load());
+        this.packer = new ContextPacker(lookup, tokenCounter::count);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            if (this.source.isArchive()) {
+                this.source.getPath().getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } else {
+                registerTree(this.source.getPath());
+            }
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            watchService.close();
+            this.source.close();
+            throw e;
+        }
+        server.createContext("/package/", exchange -> respond(exchange, "/package/",
+                (name, parameters) -> lookup.getPackage(mode(parameters), name)));
+        server.createContext("/type/", exchange -> respond(exchange, "/type/",
+                (name, parameters) -> lookup.getType(mode(parameters), name)));
+        server.createContext("/member/", exchange -> respond(exchange, "/member/", this::getMember));
+        server.createContext("/index/", exchange -> respond(exchange, "/index/",
+                (name, parameters) -> lookup.getIndex(mode(parameters), name)));
+        server.createContext("/context/", exchange -> respond(exchange, "/context/", this::getContext));
+        server.createContext("/stats", exchange -> respond(exchange, "/stats", (name, parameters) -> getStats()));
+        this.watcher = new Thread(this::watch, "FactServer-watcher");
+        watcher.setDaemon(true);
+    }
+
+    /**
+     * Starts answering requests and watching the source for changes.
+     */
+    public void start() {
+        watcher.start();
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the cache the files are read through.
+     *
+     * @return The cache.
+     */
+    public FactCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the lookup answering the requests, which can also be used directly.
+     *
+     * @return The lookup.
+     */
+    public FactLookup getLookup() {
+        return lookup;
+    }
+
+    /**
+     * Stops answering requests and watching the source.
+     *
+     * @throws IOException If the archive cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        server.stop(0);
+        watchService.close();
+        source.close();
+    }
+
+    private byte[] getMember(String name, Map<String, String> parameters) throws IOException {
+        int separator = name.lastIndexOf('/');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Expected <type>/<member>: " + name);
+        }
+        List<Fact> members = lookup.getMembers(mode(parameters), name.substring(0, separator), name.substring(separator + 1));
+        if (members.isEmpty()) {
+            return null;
+        }
+        return members.stream().map(member -> member + ".\n").collect(Collectors.joining()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] getContext(String name, Map<String, String> parameters) throws IOException {
+        String budget = parameters.get("budget");
+        if (budget == null || !budget.matches("\\d{1,9}")) {
+            throw new IllegalArgumentException("Expected ?budget=<tokens>");
+        }
+        ContextPacker.ContextPack pack = packer.pack(mode(parameters), name.replace('/', '#'), Integer.parseInt(budget));
+        return pack != null ? pack.toString().getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private byte[] getStats() {
+        StringBuilder stats = new StringBuilder();
+        appendCounter(stats, "entries", cache.getEntryCount());
+        appendCounter(stats, "bytes", cache.getSize());
+        appendCounter(stats, "max_bytes", cache.getMaxSize());
+        appendCounter(stats, "hits", cache.getHitCount());
+        appendCounter(stats, "misses", cache.getMissCount());
+        appendCounter(stats, "evictions", cache.getEvictionCount());
+        return stats.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendCounter(StringBuilder stats, String name, long value) {
+        stats.append(new Fact("cache_counter", new Atom(name), new PrologInteger(value))).append(".\n");
+    }
+
+    private static String mode(Map<String, String> parameters) {
+        return parameters.getOrDefault("mode", "minimal");
+    }
+
+    /**
+     * A lookup answering a request, given the rest of the request path and the query parameters.
+     */
+    @FunctionalInterface
+    private interface Lookup {
+        byte[] find(String name, Map<String, String> parameters) throws IOException;
+    }
+
+    /**
+     * Answers a request with the result of a lookup.
+     */
+    private void respond(HttpExchange exchange, String prefix, Lookup lookup) throws IOException {
+        try (exchange) {
+            int status;
+            byte[] body;
+            if (!exchange.getRequestMethod().equals("GET")) {
+                status = 405;
+                body = ("Unsupported method: " + exchange.getRequestMethod() + "\n").getBytes(StandardCharsets.UTF_8);
+            } else {
+                String name = exchange.getRequestURI().getPath().substring(prefix.length());
+                Map<String, String> parameters = new HashMap<>();
+                String query = exchange.getRequestURI().getQuery();
+                for (String parameter : query != null ? query.split("&") : new String[0]) {
+                    int separator = parameter.indexOf('=');
+                    if (separator > 0) {
+                        parameters.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+                    }
+                }
+                try {
+                    body = lookup.find(name, parameters);
+                    status = body != null ? 200 : 404;
+                    if (body == null) {
+                        body = ("Not found: " + name + "\n").getBytes(StandardCharsets.UTF_8);
+                    }
+                } catch (IllegalArgumentException e) {
+                    status = 400;
+                    body = (e.getMessage() + "\n").getBytes(StandardCharsets.UTF_8);
+                } catch (IOException | UncheckedIOException e) {
+                    status = 500;
+                    body = (e.getMessage() + "\n").getBytes(StandardCharsets.UTF_8);
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Registers a directory and all its subdirectories with the watch service.
+     */
+    private void registerTree(Path directory) throws IOException {
+        try (Stream<Path> directories = Files.walk(directory)) {
+            for (Path subdirectory : directories.filter(Files::isDirectory).collect(Collectors.toList())) {
+                subdirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Drops the files reported as changed by the watch service from the cache, until the server is closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        cache.invalidateAll();
+                    } else if (!source.isArchive() && Files.isDirectory(directory.resolve((Path) event.context()))) {
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                            registerTree(directory.resolve((Path) event.context()));
+                        }
+                    } else {
+                        sourceChanged(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // The server was closed
+        } catch (IOException e) {
+            System.err.println("Stopped watching " + source.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops a changed file of the source from the cache. When serving an archive, a change of the archive file
+     * reopens it and drops all files; changes of other files next to it are ignored. The watcher calls this for
+     * every changed file, and a caller regenerating a file can call it to have the change served at once.
+     *
+     * @param changed The changed file.
+     * @throws IOException If the rewritten archive cannot be reopened.
+     */
+    public void sourceChanged(Path changed) throws IOException {
+        Path root = source.getPath();
+        Path file = changed.toAbsolutePath().normalize();
+        if (source.isArchive()) {
+            if (file.equals(root)) {
+                source.reopen();
+                cache.invalidateAll();
+            }
+        } else if (file.startsWith(root)) {
+            cache.invalidate(root.relativize(file).toString().replace('\\', '/'));
+        }
+    }
+
+    /**
+     * Starts a server from the command line and runs it until the process is terminated.
+     *
+     * @param args The output directory or archive, optionally followed by {@code -port <port>},
+     *             {@code -cacheSize <megabytes>} and {@code -tokenVocabulary <file>}.
+     * @throws IOException If the source cannot be opened or the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 == 0) {
+            System.err.println("Usage: FactServer <directory|archive> [-port <port>] [-cacheSize <megabytes>] [-tokenVocabulary <file>]");
+            System.exit(1);
+        }
+        int port = DEFAULT_PORT;
+        long cacheMegabytes = DEFAULT_CACHE_MEGABYTES;
+        TokenCounter tokenCounter = new TokenCounter();
+        for (int i = 1; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "-port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-cacheSize":
+                    cacheMegabytes = Long.parseLong(args[i + 1]);
+                    break;
+                case "-tokenVocabulary":
+                    tokenCounter = TokenCounter.load(Paths.get(args[i + 1]));
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        FactServer server = new FactServer(Paths.get(args[0]), port, cacheMegabytes * 1024 * 1024, tokenCounter);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                // Terminating anyway
+            }
+        }));
+        server.start();
+        System.out.printf("Serving %s on http://%s:%d/%n", args[0], InetAddress.getLoopbackAddress().getHostAddress(), server.getPort());
+    }
+}
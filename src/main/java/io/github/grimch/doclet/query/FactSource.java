@@ -0,0 +1,135 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.query;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the files of a LogiDoclet output, either from the output directory of a run, i.e. the directory given with
+ * {@code -d}, or from the archive written with {@code -archive}. In both cases the files are addressed by their path
+ * relative to the output directory, separated by {@code /}, e.g. {@code minimal/package_index.pl}.
+ * <p>
+ * An archive is opened on the first read and kept open until it is {@link #reopen() reopened}, e.g. because it was
+ * rewritten, or the source is closed.
+ */
+public class FactSource implements FactCache.Loader, Closeable {
+    private final Path path;
+    private final boolean archive;
+    private ZipFile zipFile;
+
+    /**
+     * Opens an output directory or archive.
+     *
+     * @param path The output directory, or the archive written with {@code -archive}.
+     * @throws IOException If there is no such directory or file, or the archive cannot be opened.
+     */
+    public FactSource(Path path) throws IOException {
+        this.path = path.toAbsolutePath().normalize();
+        this.archive = Files.isRegularFile(this.path);
+        if (archive) {
+            zipFile = new ZipFile(this.path.toFile());
+        } else if (!Files.isDirectory(this.path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+    }
+
+    /**
+     * Returns the absolute path of the output directory or archive.
+     *
+     * @return The path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Tells if the files are read from an archive.
+     *
+     * @return {@code true} for an archive, {@code false} for an output directory.
+     */
+    public boolean isArchive() {
+        return archive;
+    }
+
+    /**
+     * Reads a file.
+     *
+     * @param file The path of the file, relative to the output directory and separated by {@code /}.
+     * @return The contents of the file, or {@code null} if there is no such file.
+     * @throws IOException If the file exists but cannot be read.
+     */
+    @Override
+    public byte[] load(String file) throws IOException {
+        if (archive) {
+            return readArchiveEntry(file);
+        }
+        try {
+            return Files.readAllBytes(path.resolve(file));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Closes the archive, so the next read opens it again.
+     *
+     * @throws IOException If the archive cannot be closed.
+     */
+    public synchronized void reopen() throws IOException {
+        if (zipFile != null) {
+            zipFile.close();
+            zipFile = null;
+        }
+    }
+
+    /**
+     * Closes the archive, if any.
+     *
+     * @throws IOException If the archive cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        reopen();
+    }
+
+    private synchronized byte[] readArchiveEntry(String file) throws IOException {
+        if (zipFile == null) {
+            zipFile = new ZipFile(path.toFile());
+        }
+        ZipEntry entry = zipFile.getEntry(file);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of LogiDoclet.
+ *
+ * Copyright (c) 2025 The LogiDoclet Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.grimch.doclet.query;
+
+import io.github.grimch.doclet.prolog.Atom;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrologInteger;
+import io.github.grimch.doclet.prolog.PrologList;
+import io.github.grimch.doclet.prolog.PrologParser;
+import io.github.grimch.doclet.prolog.Term;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The structure of the generated facts, as described by {@code java_metastructure.pl}.
+ * <p>
+ * The schema is read from its {@code predicate_info/2} and {@code argument_info/4} facts. It tells the arity of
+ * every predicate and the position of each named argument, e.g. that the {@code implements} list is the sixth
+ * argument of a {@code class} fact, so that consumers such as {@link FactQueryEngine} do not hard-code positions.
+ * The predicates of type facts are the alternatives of the {@code type_definition_term}.
+ */
+public final class Schema {
+    /**
+     * The name of the schema resource, which the doclet also copies to the root output directory.
+     */
+    public static final String RESOURCE_NAME = "java_metastructure.pl";
+
+    private final Map<String, Integer> arities = new HashMap<>();
+    private final Map<String, Map<String, Integer>> argumentIndexes = new HashMap<>();
+    private final List<String> typePredicates = new ArrayList<>();
+
+    /**
+     * Constructs a schema from the facts of a metastructure file. Facts other than {@code predicate_info/2} and
+     * {@code argument_info/4} are ignored.
+     *
+     * @param facts The facts of the metastructure file.
+     */
+    public Schema(List<Fact> facts) {
+        for (Fact fact : facts) {
+            if (fact.getPredicate().equals("predicate_info") && fact.getArgumentCount() == 2
+                    && fact.getArgument(1) instanceof Fact && ((Fact) fact.getArgument(1)).getArgumentCount() == 1) {
+                Term arity = ((Fact) fact.getArgument(1)).getArgument(0);
+                if (fact.getArgument(0) instanceof Atom && arity instanceof PrologInteger) {
+                    arities.put(value(fact.getArgument(0)), (int) ((PrologInteger) arity).getValue());
+                }
+            } else if (fact.getPredicate().equals("argument_info") && fact.getArgumentCount() == 4
+                    && fact.getArgument(0) instanceof Atom && fact.getArgument(1) instanceof PrologInteger
+                    && fact.getArgument(2) instanceof Atom) {
+                String predicate = value(fact.getArgument(0));
+                int index = (int) ((PrologInteger) fact.getArgument(1)).getValue() - 1;
+                argumentIndexes.computeIfAbsent(predicate, p -> new HashMap<>()).putIfAbsent(value(fact.getArgument(2)), index);
+                if (predicate.equals("type_definition_term")) {
+                    addTypePredicates(fact.getArgument(3));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the schema shipped with the doclet.
+     *
+     * @return The schema.
+     * @throws IOException If the resource is missing or cannot be parsed.
+     */
+    public static Schema load() throws IOException {
+        InputStream stream = Schema.class.getClassLoader().getResourceAsStream(RESOURCE_NAME);
+        if (stream == null) {
+            throw new IOException("Resource '" + RESOURCE_NAME + "' not found in classpath.");
+        }
+        try (PrologParser parser = new PrologParser(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return new Schema(parser.readAll());
+        }
+    }
+
+    /**
+     * Returns the arity of a predicate.
+     *
+     * @param predicate The name of the predicate.
+     * @return The number of arguments, or -1 if the schema does not describe the predicate.
+     */
+    public int getArity(String predicate) {
+        return arities.getOrDefault(predicate, -1);
+    }
+
+    /**
+     * Returns the position of a named argument.
+     *
+     * @param predicate    The name of the predicate.
+     * @param argumentName The name of the argument, e.g. {@code implements}.
+     * @return The zero-based index of the argument, or -1 if the predicate has no such argument.
+     */
+    public int getArgumentIndex(String predicate, String argumentName) {
+        return argumentIndexes.getOrDefault(predicate, Map.of()).getOrDefault(argumentName, -1);
+    }
+
+    /**
+     * Returns the predicates of the facts describing a type, e.g. {@code class} and {@code interface}.
+     *
+     * @return An unmodifiable list of predicate names.
+     */
+    public List<String> getTypePredicates() {
+        return Collections.unmodifiableList(typePredicates);
+    }
+
+    /**
+     * Collects the alternatives of {@code type(one_of([class, interface, ...]))}.
+     */
+    private void addTypePredicates(Term type) {
+        if (type instanceof Fact && ((Fact) type).getArgumentCount() == 1 && ((Fact) type).getArgument(0) instanceof Fact) {
+            Fact oneOf = (Fact) ((Fact) type).getArgument(0);
+            if (oneOf.getPredicate().equals("one_of") && oneOf.getArgumentCount() == 1 && oneOf.getArgument(0) instanceof PrologList) {
+                for (Term alternative : ((PrologList) oneOf.getArgument(0)).getElements()) {
+                    if (alternative instanceof Atom) {
+                        typePredicates.add(value(alternative));
+                    }
+                }
+            }
+        }
+    }
+
+    private static String value(Term atom) {
+        return ((Atom) atom).getValue();
+    }
+}
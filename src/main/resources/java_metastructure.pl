@@ -67,7 +67,7 @@ argument_info(package_index, 1, package_names, type(list(package_name))).
 predicate_info(package_details, arity(3)).
 argument_info(package_details, 1, package_name, type(package_fqn)).
 argument_info(package_details, 2, version, type(project_version)).
-argument_info(package_details, 3, package_declaration, type(package_declaration))
+argument_info(package_details, 3, package_declaration, type(package_declaration)).
 
 predicate_info(package_declaration, arity(2)).
 argument_info(package_declaration, 1, package_name, type(package_fqn)).
@@ -116,7 +116,7 @@ argument_info(interface, 1, name, type(simple_name)).
 argument_info(interface, 2, package_name, type(package_fqn)).
 argument_info(interface, 3, modifiers, type(list(modifier))).
 argument_info(interface, 4, type_parameters, type(list(type_parameter))).
-argument_info(interface, 5, extends, type(list(extends))).
+argument_info(interface, 5, extends, type(list(implements))). % Written as implements/2 facts
 argument_info(interface, 6, members, type(list(member))).
 argument_info(interface, 7, annotations, type(list(annotation))).
 argument_info(interface, 8, permitted_implementations, type(list(declared_type))).
@@ -133,28 +133,26 @@ argument_info(record, 7, members, type(list(member))).
 argument_info(record, 8, annotations, type(list(annotation))).
 argument_info(record, 9, doc_comment, type(string)).
 
-predicate_info(enum, arity(8)).
+predicate_info(enum, arity(7)).
 argument_info(enum, 1, name, type(simple_name)).
 argument_info(enum, 2, package_name, type(package_fqn)).
 argument_info(enum, 3, modifiers, type(list(modifier))).
 argument_info(enum, 4, implements, type(list(implements))).
-argument_info(enum, 5, constants, type(list(enum_constant))).
-argument_info(enum, 6, members, type(list(member))).
-argument_info(enum, 7, annotations, type(list(annotation))).
-argument_info(enum, 8, doc_comment, type(string)).
+argument_info(enum, 5, members, type(list(member))).
+argument_info(enum, 6, annotations, type(list(annotation))).
+argument_info(enum, 7, doc_comment, type(string)).
 
 predicate_info(enum_constant, arity(3)).
 argument_info(enum_constant, 1, name, type(simple_name)).
 argument_info(enum_constant, 2, annotations, type(list(annotation))).
 argument_info(enum_constant, 3, constructor_arguments, type(list(term))).
 
-predicate_info(annotation_type, arity(6)).
+predicate_info(annotation_type, arity(5)).
 argument_info(annotation_type, 1, name, type(simple_name)).
 argument_info(annotation_type, 2, package_name, type(package_fqn)).
 argument_info(annotation_type, 3, modifiers, type(list(modifier))).
-argument_info(annotation_type, 4, members, type(list(annotation_member))).
-argument_info(annotation_type, 5, annotations, type(list(annotation))).
-argument_info(annotation_type, 6, doc_comment, type(string)).
+argument_info(annotation_type, 4, annotations, type(list(annotation))).
+argument_info(annotation_type, 5, doc_comment, type(string)).
 
 predicate_info(member, arity(1)).
 argument_info(member, 1, member_fact, type(term)). % Can be method(), constructor(), field()
@@ -337,4 +335,122 @@ argument_info(false_reason_category, 1, name, type(atom)).
 false_reason_category('project_unavailable').
 false_reason_category('version_unavailable').
 false_reason_category('wrong_path').
-false_reason_category('wrong_element').
\ No newline at end of file
+false_reason_category('wrong_element').
+
+% 7. Generation statistics definition (generation_stats.pl in the root output directory)
+predicate_info(generation_phase, arity(2)).
+argument_info(generation_phase, 1, phase, type(generation_phase_name)).
+argument_info(generation_phase, 2, milliseconds, type(integer)).
+
+predicate_info(generation_counter, arity(2)).
+argument_info(generation_counter, 1, name, type(generation_counter_name)).
+argument_info(generation_counter, 2, value, type(integer)).
+
+predicate_info(generation_output, arity(4)).
+argument_info(generation_output, 1, output_mode, type(atom)). % 'full' or 'minimal'
+argument_info(generation_output, 2, files_written, type(integer)).
+argument_info(generation_output, 3, files_skipped, type(integer)). % Unchanged files in incremental mode
+argument_info(generation_output, 4, bytes_written, type(integer)).
+
+% Rendering and writing are summed over all writer threads, the other phases add up to the total
+generation_phase_name(setup).
+generation_phase_name(visiting).
+generation_phase_name(term_building).
+generation_phase_name(scheduling).
+generation_phase_name(indexing). % Building and scheduling the reverse index files
+generation_phase_name(waiting).
+generation_phase_name(finishing).
+generation_phase_name(rendering).
+generation_phase_name(writing).
+generation_phase_name(total).
+
+generation_counter_name(elements_visited).
+generation_counter_name(facts_built).
+generation_counter_name(atom_pool_hits). % Atoms shared instead of being created again
+generation_counter_name(atom_pool_misses). % Distinct atoms
+generation_counter_name(files_written).
+generation_counter_name(bytes_written).
+generation_counter_name(directory_creations_saved). % Each saving at least a mkdir and a stat system call
+
+% 8. Archive index definition (archive_index.pl, the last entry of the archive written with -archive)
+
+predicate_info(archive_entry, arity(3)).
+argument_info(archive_entry, 1, name, type(atom)). % Path inside the archive, e.g. 'minimal/package_index.pl'
+argument_info(archive_entry, 2, offset, type(integer)). % Byte offset of the entry's local file header
+argument_info(archive_entry, 3, size, type(integer)). % Uncompressed size of the entry
+
+% 9. Package bundle index definition (package-bundle-index.pl next to package-bundle.pl, written with -bundlePackages true)
+
+predicate_info(type_bundle_index, arity(2)).
+argument_info(type_bundle_index, 1, package_name, type(atom)).
+argument_info(type_bundle_index, 2, type_offsets, type(list(type_offset))). % Sorted by type name
+
+predicate_info(type_offset, arity(3)).
+argument_info(type_offset, 1, type_name, type(atom)). % Simple name of the type
+argument_info(type_offset, 2, offset, type(integer)). % Byte offset of the type's fact in package-bundle.pl
+argument_info(type_offset, 3, length, type(integer)). % Length of the fact in bytes, including its line separator
+
+% 10. Reverse index definition (subtype_index.pl, implementor_index.pl, annotation_usage_index.pl and nested_type_index.pl next to package_index.pl)
+
+predicate_info(subtype_index, arity(1)).
+argument_info(subtype_index, 1, entries, type(list(subtypes))). % Sorted by supertype
+
+predicate_info(subtypes, arity(2)).
+argument_info(subtypes, 1, supertype, type(type_fqn)).
+argument_info(subtypes, 2, direct_subtypes, type(list(type_fqn))). % Classes extending a class, interfaces extending an interface
+
+predicate_info(implementor_index, arity(1)).
+argument_info(implementor_index, 1, entries, type(list(implementors))). % Sorted by interface
+
+predicate_info(implementors, arity(2)).
+argument_info(implementors, 1, interface, type(type_fqn)).
+argument_info(implementors, 2, direct_implementors, type(list(type_fqn))). % Classes, enums and records
+
+predicate_info(annotation_usage_index, arity(1)).
+argument_info(annotation_usage_index, 1, entries, type(list(annotation_usages))). % Sorted by annotation type
+
+predicate_info(annotation_usages, arity(2)).
+argument_info(annotation_usages, 1, annotation, type(type_fqn)).
+argument_info(annotation_usages, 2, annotated_elements, type(list(fqn))). % Types, and members as 'Type#member'
+
+predicate_info(nested_type_index, arity(1)).
+argument_info(nested_type_index, 1, entries, type(list(nested_types))). % Sorted by enclosing type
+
+predicate_info(nested_types, arity(2)).
+argument_info(nested_types, 1, enclosing_type, type(type_fqn)).
+argument_info(nested_types, 2, direct_nested_types, type(list(type_fqn))). % Type files of nested types carry their simple name, or their name relative to the package if that is taken
+
+% 11. Package hierarchy definition (package-hierarchy.pl next to the type files of each package)
+
+predicate_info(package_hierarchy, arity(2)).
+argument_info(package_hierarchy, 1, package_name, type(atom)).
+argument_info(package_hierarchy, 2, types, type(list(type_hierarchy))). % Sorted by type name
+
+predicate_info(type_hierarchy, arity(3)).
+argument_info(type_hierarchy, 1, type_name, type(atom)). % Simple name of the type
+argument_info(type_hierarchy, 2, supertypes, type(list(type_fqn))). % All transitive supertypes, the direct ones first
+argument_info(type_hierarchy, 3, inherited_members, type(list(inherited))). % Only supertypes contributing members
+
+predicate_info(inherited, arity(2)).
+argument_info(inherited, 1, declaring_type, type(type_fqn)).
+argument_info(inherited, 2, members, type(list(atom))). % Methods as 'name(ErasedParameterTypes)', fields by name
+
+% 12. Token report definition (token_report.pl next to package_index.pl, only with -tokenReport)
+
+predicate_info(token_total, arity(1)).
+argument_info(token_total, 1, tokens, type(integer)). % Tokens of all files written to the output directory
+
+predicate_info(package_tokens, arity(3)).
+argument_info(package_tokens, 1, package_name, type(atom)).
+argument_info(package_tokens, 2, tokens, type(integer)). % Tokens of all files of the package
+argument_info(package_tokens, 3, type_count, type(integer)).
+
+predicate_info(type_tokens, arity(3)).
+argument_info(type_tokens, 1, package_name, type(atom)).
+argument_info(type_tokens, 2, type, type(type_fqn)). % Also for nested types, whose files carry their simple name
+argument_info(type_tokens, 3, tokens, type(integer)).
+
+predicate_info(heaviest_type, arity(3)).
+argument_info(heaviest_type, 1, rank, type(integer)). % 1 for the type with the most tokens
+argument_info(heaviest_type, 2, type, type(type_fqn)).
+argument_info(heaviest_type, 3, tokens, type(integer)).
\ No newline at end of file
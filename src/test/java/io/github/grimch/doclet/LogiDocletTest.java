@@ -23,20 +23,64 @@
  */
 package io.github.grimch.doclet;
 
+import io.github.grimch.doclet.prolog.BinaryFactStore;
+import io.github.grimch.doclet.prolog.DocletPrologWriter;
+import io.github.grimch.doclet.prolog.Fact;
+import io.github.grimch.doclet.prolog.PrettyPrinter;
+import io.github.grimch.doclet.prolog.PrologParser;
+import io.github.grimch.doclet.prolog.TokenCounter;
+import io.github.grimch.doclet.prolog.TokenReport;
+import io.github.grimch.doclet.query.ContextPacker;
+import io.github.grimch.doclet.query.FactCache;
+import io.github.grimch.doclet.query.FactLookup;
+import io.github.grimch.doclet.query.FactQueryEngine;
+import io.github.grimch.doclet.query.FactServer;
+import io.github.grimch.doclet.query.FactSource;
+import io.github.grimch.doclet.query.Schema;
+import io.github.grimch.doclet.prolog.PrologArchive;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import javax.tools.DocumentationTool;
 import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Integration test for the {@link LogiDoclet}.
@@ -122,6 +166,683 @@ public class LogiDocletTest {
         testDoclet(args, "full");
     }
 
+    /**
+     * Executes the {@link LogiDoclet} in {@code both} mode and verifies that the minimal output, which is derived
+     * from the full facts of the same traversal, matches the expected minimal output.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testBothOutput() throws IOException {
+        Path bothOutputDir = outputDir.resolve("both");
+        String[] args = {
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", bothOutputDir.toString(),
+                "-outputMode", "both",
+                "--source-path", "src/test/resources/sample_module",
+                "-subpackages",  "io.github.grimch.doclet.sample_module"
+        };
+        testDoclet(args, "minimal", bothOutputDir);
+        assertTrue(Files.exists(bothOutputDir.resolve("full/package_index.pl")), "Full output missing in both mode");
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} with several writer threads and verifies that the output is
+     * identical to the expected output, and byte-identical to the output written by a single thread, file by file.
+     * The sample types {@code C6} and {@code C7} both declare a nested {@code Builder}, whose files must not race.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testParallelOutput() throws IOException {
+        Path parallelOutputDir = outputDir.resolve("parallel");
+        Path singleOutputDir = outputDir.resolve("parallel-single");
+        for (String threads : List.of("4", "1")) {
+            String[] args = {
+                    "-doclet", LogiDoclet.class.getName(),
+                    "-d", (threads.equals("1") ? singleOutputDir : parallelOutputDir).toString(),
+                    "-outputMode", "both",
+                    "-prettyPrint", "true",
+                    "-threads", threads,
+                    "--source-path", "src/test/resources/sample_module",
+                    "-subpackages",  "io.github.grimch.doclet.sample_module"
+            };
+            testDoclet(args, "full", threads.equals("1") ? singleOutputDir : parallelOutputDir);
+        }
+
+        for (String mode : List.of("full", "minimal")) {
+            Path singleDir = singleOutputDir.resolve(mode);
+            Path parallelDir = parallelOutputDir.resolve(mode);
+            List<Path> singleFiles;
+            List<Path> parallelFiles;
+            try (Stream<Path> files = Files.walk(singleDir)) {
+                singleFiles = files.filter(Files::isRegularFile).map(singleDir::relativize).sorted().collect(Collectors.toList());
+            }
+            try (Stream<Path> files = Files.walk(parallelDir)) {
+                parallelFiles = files.filter(Files::isRegularFile).map(parallelDir::relativize).sorted().collect(Collectors.toList());
+            }
+            assertFalse(singleFiles.isEmpty(), "No files written to " + singleDir);
+            assertEquals(singleFiles, parallelFiles, "Different files written by one and four threads");
+            for (Path file : singleFiles) {
+                assertEquals(-1L, Files.mismatch(singleDir.resolve(file), parallelDir.resolve(file)),
+                        "Bytes differ between one and four threads: " + mode + "/" + file);
+            }
+        }
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} writing through a {@link java.io.Writer} instead of the direct encoder
+     * and verifies that the output is identical to the expected output.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testWriterEncodingOutput() throws IOException {
+        Path writerOutputDir = outputDir.resolve("writer");
+        String[] args = {
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", writerOutputDir.toString(),
+                "-outputMode", "full",
+                "-prettyPrint", "true",
+                "-directEncoding", "false",
+                "--source-path", "src/test/resources/sample_module",
+                "-subpackages",  "io.github.grimch.doclet.sample_module"
+        };
+        testDoclet(args, "full", writerOutputDir);
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} twice in incremental mode and verifies that the second run leaves
+     * unchanged files alone and deletes files of the previous run that are not produced any more, and that it
+     * reports the numbers of written, skipped and deleted files.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testIncrementalOutput() throws IOException {
+        Path incrementalOutputDir = outputDir.resolve("incremental");
+        String[] args = {
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", incrementalOutputDir.toString(),
+                "-outputMode", "minimal",
+                "-incremental", "true",
+                "--source-path", "src/test/resources/sample_module",
+                "-subpackages",  "io.github.grimch.doclet.sample_module"
+        };
+        testDoclet(args, "minimal", incrementalOutputDir);
+
+        Path minimalDir = incrementalOutputDir.resolve("minimal");
+        Path unchangedFile = minimalDir.resolve("io/github/grimch/doclet/sample_module/types/basic/C1.pl");
+        FileTime unchangedTime = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(unchangedFile, unchangedTime);
+        Path staleFile = minimalDir.resolve("io/github/grimch/doclet/sample_module/types/removed/Gone.pl");
+        Files.createDirectories(staleFile.getParent());
+        Files.writeString(staleFile, "class('Gone').");
+        Files.writeString(minimalDir.resolve(DocletPrologWriter.MANIFEST_FILE_NAME),
+                "0000  io/github/grimch/doclet/sample_module/types/removed/Gone.pl\n", StandardOpenOption.APPEND);
+
+        ByteArrayOutputStream messages = new ByteArrayOutputStream();
+        int result = ToolProvider.getSystemDocumentationTool().run(null, messages, messages, args);
+        assertEquals(0, result, "Javadoc tool execution failed");
+        assertOutput("minimal", incrementalOutputDir);
+        assertEquals(unchangedTime, Files.getLastModifiedTime(unchangedFile), "Unchanged file was rewritten");
+        assertFalse(Files.exists(staleFile.getParent()), "Stale file was not deleted");
+
+        long filesOnDisk;
+        try (Stream<Path> files = Files.walk(minimalDir)) {
+            filesOnDisk = files.filter(file -> file.toString().endsWith(".pl")).count();
+        }
+        String output = messages.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains(": 0 files written, " + filesOnDisk + " unchanged files skipped, 1 stale files deleted."),
+                "Unexpected number of written, skipped or deleted files: " + output);
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} and verifies, based on the reported file counter, that every
+     * file is written exactly once although types are reachable both through their package and as
+     * included elements of the javadoc run.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testEachFileWrittenOnce() throws IOException {
+        Path onceOutputDir = outputDir.resolve("once");
+        String[] args = {
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", onceOutputDir.toString(),
+                "-outputMode", "minimal",
+                "--source-path", "src/test/resources/sample_module",
+                "-subpackages",  "io.github.grimch.doclet.sample_module"
+        };
+        ByteArrayOutputStream messages = new ByteArrayOutputStream();
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        int result = tool.run(null, messages, messages, args);
+        assertEquals(0, result, "Javadoc tool execution failed");
+
+        long filesOnDisk;
+        try (Stream<Path> files = Files.walk(onceOutputDir.resolve("minimal"))) {
+            filesOnDisk = files.filter(file -> file.toString().endsWith(".pl")).count();
+        }
+        String output = messages.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains(": " + filesOnDisk + " files written."), "Unexpected number of written files: " + output);
+        assertFalse(output.contains("more than once"), "Files were written more than once: " + output);
+
+        assertTrue(output.contains("Generation statistics: "), "Missing statistics summary: " + output);
+        List<String> stats = Files.readAllLines(onceOutputDir.resolve("generation_stats.pl"));
+        assertTrue(stats.contains("generation_counter(files_written, " + filesOnDisk + ")."), "Unexpected statistics: " + stats);
+        assertTrue(stats.stream().anyMatch(line -> line.startsWith("generation_output(minimal, " + filesOnDisk + ", 0, ")),
+                "Unexpected statistics: " + stats);
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} writing a single archive and verifies that its entries have the layout and
+     * content of the expected output, and that the index entry points at the local header of every entry.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testArchiveOutput() throws IOException {
+        Path archiveOutputDir = outputDir.resolve("archive");
+        String[] args = {
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", archiveOutputDir.toString(),
+                "-outputMode", "both",
+                "-threads", "4",
+                "-archive", "logidoclet.zip",
+                "--source-path", "src/test/resources/sample_module",
+                "-subpackages",  "io.github.grimch.doclet.sample_module"
+        };
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        int result = tool.run(null, null, null, args);
+        assertEquals(0, result, "Javadoc tool execution failed");
+        assertFalse(Files.exists(archiveOutputDir.resolve("minimal")), "Files written next to the archive");
+        try (Stream<Path> files = Files.list(archiveOutputDir)) {
+            assertFalse(files.anyMatch(file -> file.toString().endsWith(".spool")), "Spool file left next to the archive");
+        }
+
+        Path archiveFile = archiveOutputDir.resolve("logidoclet.zip");
+        Path expectedDir = Paths.get("src/test/resources/expected_output/minimal");
+        try (ZipFile zip = new ZipFile(archiveFile.toFile()); Stream<Path> expectedFiles = Files.walk(expectedDir)) {
+            for (Path expectedFile : expectedFiles.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                String name = "minimal/" + expectedDir.relativize(expectedFile).toString().replace('\\', '/');
+                ZipEntry entry = zip.getEntry(name);
+                assertTrue(entry != null, "Missing archive entry: " + name);
+                List<String> expectedLines = Files.readAllLines(expectedFile).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty())
+                        .collect(Collectors.toList());
+                List<String> actualLines = new String(zip.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8).lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty())
+                        .collect(Collectors.toList());
+                assertEquals(expectedLines, actualLines, "Archive entry content mismatch: " + name);
+            }
+            assertTrue(zip.getEntry("full/package_index.pl") != null, "Full output missing in archive");
+
+            ZipEntry indexEntry = zip.getEntry(PrologArchive.INDEX_ENTRY_NAME);
+            assertTrue(indexEntry != null, "Missing archive index");
+            List<String> index = new String(zip.getInputStream(indexEntry).readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .collect(Collectors.toList());
+            assertEquals(zip.size() - 1, index.size(), "Archive index does not list every entry: " + index);
+
+            byte[] archiveBytes = Files.readAllBytes(archiveFile);
+            Matcher matcher = Pattern.compile("archive_entry\\('(.*)', (\\d+), (\\d+)\\)\\.").matcher("");
+            for (String line : index) {
+                assertTrue(matcher.reset(line).matches(), "Unexpected index entry: " + line);
+                String name = matcher.group(1);
+                int offset = Integer.parseInt(matcher.group(2));
+                ByteBuffer header = ByteBuffer.wrap(archiveBytes, offset, 30).slice().order(ByteOrder.LITTLE_ENDIAN);
+                assertEquals(0x04034b50, header.getInt(0), "No local header at the offset of " + name);
+                String headerName = new String(archiveBytes, offset + 30, header.getShort(26), StandardCharsets.UTF_8);
+                assertEquals(name, headerName, "Wrong local header at the offset of " + name);
+                assertEquals(zip.getEntry(name).getSize(), Long.parseLong(matcher.group(3)), "Wrong size of " + name);
+            }
+        }
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} writing a single archive on one and on four threads and verifies that both
+     * archives are byte-identical, whatever the order in which the threads complete.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testArchiveDeterminism() throws IOException {
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        for (String threads : List.of("1", "4")) {
+            String[] args = {
+                    "-doclet", LogiDoclet.class.getName(),
+                    "-d", outputDir.resolve("archive-" + threads).toString(),
+                    "-outputMode", "both",
+                    "-threads", threads,
+                    "-archive", "logidoclet.zip",
+                    "--source-path", "src/test/resources/sample_module",
+                    "-subpackages",  "io.github.grimch.doclet.sample_module"
+            };
+            int result = tool.run(null, null, null, args);
+            assertEquals(0, result, "Javadoc tool execution failed");
+        }
+        assertEquals(-1L, Files.mismatch(outputDir.resolve("archive-1").resolve("logidoclet.zip"),
+                outputDir.resolve("archive-4").resolve("logidoclet.zip")), "Archives differ between thread counts");
+    }
+
+    /**
+     * Adds large entries to an archive from several threads in shuffled order and verifies that they are written
+     * sorted by name with their content, that the spool file keeping them until the archive is closed is deleted,
+     * and that the archive is not written to once closed.
+     *
+     * @throws Exception if an error occurs during file I/O operations or in one of the threads.
+     */
+    @Test
+    public void testArchiveSpooling() throws Exception {
+        Path archiveDir = outputDir.resolve("archive-spool");
+        Path archiveFile = archiveDir.resolve("large.zip");
+        int entryCount = 32;
+        int entrySize = 1024 * 1024;
+        List<Integer> order = IntStream.range(0, entryCount).boxed().collect(Collectors.toList());
+        Collections.shuffle(order, new Random(42));
+        PrologArchive archive = new PrologArchive(archiveFile, archiveDir);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i : order) {
+                writes.add(pool.submit(() -> {
+                    byte[] content = new byte[entrySize];
+                    Arrays.fill(content, (byte) ('a' + i % 26));
+                    archive.write(archiveDir.resolve(String.format("entry%02d.pl", i)), ByteBuffer.wrap(content));
+                    return null;
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(entryCount, archive.getEntryCount());
+        archive.close();
+        assertThrows(IOException.class, () -> archive.write(archiveDir.resolve("late.pl"), ByteBuffer.allocate(1)));
+
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            assertEquals(List.of(archiveFile), files.collect(Collectors.toList()), "Spool file not deleted");
+        }
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(archiveFile))) {
+            for (int i = 0; i < entryCount; i++) {
+                ZipEntry entry = zip.getNextEntry();
+                assertEquals(String.format("entry%02d.pl", i), entry.getName(), "Entries not sorted by name");
+                byte[] content = zip.readAllBytes();
+                assertEquals(entrySize, content.length, "Wrong size of " + entry.getName());
+                for (byte b : content) {
+                    assertEquals((byte) ('a' + i % 26), b, "Wrong content of " + entry.getName());
+                }
+            }
+            assertEquals(PrologArchive.INDEX_ENTRY_NAME, zip.getNextEntry().getName());
+        }
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} bundling the types of each package and verifies that every type found at
+     * its offset in the bundle is identical to the expected type file.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testBundleOutput() throws IOException {
+        Path bundleOutputDir = outputDir.resolve("bundle");
+        String[] args = {
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", bundleOutputDir.toString(),
+                "-outputMode", "minimal",
+                "-bundlePackages", "true",
+                "--source-path", "src/test/resources/sample_module",
+                "-subpackages",  "io.github.grimch.doclet.sample_module"
+        };
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        int result = tool.run(null, null, null, args);
+        assertEquals(0, result, "Javadoc tool execution failed");
+
+        Path expectedDir = Paths.get("src/test/resources/expected_output/minimal");
+        Path actualDir = bundleOutputDir.resolve("minimal");
+        Pattern typeOffset = Pattern.compile("type_offset\\('?([\\w.]+)'?, (\\d+), (\\d+)\\)");
+        int bundledTypes = 0;
+        try (Stream<Path> expectedFiles = Files.walk(expectedDir)) {
+            for (Path expectedPackageFile : expectedFiles.filter(file -> file.endsWith("package.pl")).collect(Collectors.toList())) {
+                Path packageDir = actualDir.resolve(expectedDir.relativize(expectedPackageFile.getParent()));
+                byte[] bundle = Files.readAllBytes(packageDir.resolve(DocletPrologWriter.BUNDLE_FILE_NAME + ".pl"));
+                String index = Files.readString(packageDir.resolve(DocletPrologWriter.BUNDLE_INDEX_FILE_NAME + ".pl"));
+                assertTrue(index.startsWith("type_bundle_index("), "Unexpected bundle index: " + index);
+                int end = 0;
+                for (Matcher matcher = typeOffset.matcher(index); matcher.find(); bundledTypes++) {
+                    String typeName = matcher.group(1);
+                    int offset = Integer.parseInt(matcher.group(2));
+                    int length = Integer.parseInt(matcher.group(3));
+                    assertEquals(end, offset, "Bundle is not contiguous at " + typeName);
+                    end = offset + length;
+                    assertFalse(Files.exists(packageDir.resolve(typeName + ".pl")), "Type file written next to the bundle: " + typeName);
+                    assertEquals(Files.readString(expectedPackageFile.resolveSibling(typeName + ".pl")).trim(),
+                            new String(bundle, offset, length, StandardCharsets.UTF_8).trim(), "Bundled type mismatch: " + typeName);
+                }
+                assertEquals(bundle.length, end, "Bundle holds more than its indexed types: " + packageDir);
+            }
+        }
+        long expectedTypes;
+        try (Stream<Path> expectedFiles = Files.walk(expectedDir)) {
+            expectedTypes = expectedFiles.filter(file -> file.getNameCount() > expectedDir.getNameCount() + 1)
+                    .filter(file -> !file.endsWith("package.pl") && !file.endsWith("module.pl")
+                            && !file.endsWith(DocletPrologWriter.HIERARCHY_FILE_NAME + ".pl") && Files.isRegularFile(file)).count();
+        }
+        assertEquals(expectedTypes, bundledTypes, "Not every type was bundled");
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} writing a binary fact store and verifies that every type looked up by its
+     * fully qualified name renders exactly like its expected type file. Nested types are named after their enclosing
+     * types, unlike their files.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testBinaryStoreOutput() throws IOException {
+        Path storeOutputDir = outputDir.resolve("store");
+        String[] args = {
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", storeOutputDir.toString(),
+                "-outputMode", "minimal",
+                "-binaryStore", "facts.bin",
+                "--source-path", "src/test/resources/sample_module",
+                "-subpackages",  "io.github.grimch.doclet.sample_module"
+        };
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        int result = tool.run(null, null, null, args);
+        assertEquals(0, result, "Javadoc tool execution failed");
+
+        BinaryFactStore store = BinaryFactStore.open(storeOutputDir.resolve("facts.bin"));
+        Path expectedDir = Paths.get("src/test/resources/expected_output/minimal");
+        List<Path> expectedTypeFiles;
+        try (Stream<Path> expectedFiles = Files.walk(expectedDir)) {
+            expectedTypeFiles = expectedFiles.filter(file -> file.getNameCount() > expectedDir.getNameCount() + 1)
+                    .filter(file -> !file.endsWith("package.pl") && !file.endsWith("module.pl")
+                            && !file.endsWith(DocletPrologWriter.HIERARCHY_FILE_NAME + ".pl") && Files.isRegularFile(file))
+                    .collect(Collectors.toList());
+        }
+        assertEquals(expectedTypeFiles.size(), store.getTypeCount(), "Unexpected number of stored types");
+        Map<String, String> enclosingTypes = Map.of("StaticNestedC1", "C1", "InnerC2", "C1", "InnerC3", "C4", "NestedGenericC4", "C4",
+                "Builder", "C6");
+        for (Path expectedFile : expectedTypeFiles) {
+            String typeName = expectedFile.getFileName().toString().replace(".pl", "");
+            String packageName = expectedDir.relativize(expectedFile.getParent()).toString().replace('\\', '/').replace('/', '.');
+            String qualifiedName = packageName + "." + (enclosingTypes.containsKey(typeName) ? enclosingTypes.get(typeName) + "." : "") + typeName;
+            Fact fact = store.getType(qualifiedName);
+            assertTrue(fact != null, "Missing stored type: " + qualifiedName);
+            assertEquals(Files.readString(expectedFile).trim(), fact + ".", "Stored type mismatch: " + qualifiedName);
+        }
+        List<String> names = store.getTypeNames();
+        assertEquals(names.stream().sorted().collect(Collectors.toList()), names, "Index is not sorted");
+        assertTrue(store.getType("io.github.grimch.doclet.sample_module.types.basic.Missing") == null, "Found a missing type");
+        assertTrue(store.getType("io.github.grimch.doclet.sample_module.types.basic.C1.InnerC2") != null, "Nested type not found by its qualified name");
+        assertTrue(store.getType("io.github.grimch.doclet.sample_module.types.basic.InnerC2") == null, "Nested type found by its file name");
+    }
+
+    /**
+     * Parses every expected output file back into facts and verifies that rendering them again, compact for the
+     * minimal and pretty printed for the full output, reproduces the file. The full output is also read one
+     * character at a time, to cover tokens split across reads.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testParserRoundTrip() throws IOException {
+        PrettyPrinter prettyPrinter = new PrettyPrinter();
+        for (String mode : List.of("minimal", "full")) {
+            Path expectedDir = Paths.get("src/test/resources/expected_output/" + mode);
+            List<Path> expectedFiles;
+            try (Stream<Path> files = Files.walk(expectedDir)) {
+                expectedFiles = files.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            for (Path expectedFile : expectedFiles) {
+                String expected = Files.readString(expectedFile).trim();
+                List<Fact> facts = PrologParser.parse(expectedFile);
+                assertEquals(1, facts.size(), "Unexpected number of facts in " + expectedFile);
+                String rendered = mode.equals("full") ? prettyPrinter.prettyPrint(facts.get(0)) : facts.get(0) + ".";
+                assertEquals(expected.lines().map(String::trim).collect(Collectors.toList()),
+                        rendered.trim().lines().map(String::trim).collect(Collectors.toList()),
+                        "Round trip mismatch: " + expectedFile);
+
+                Reader slowReader = new FilterReader(new StringReader(expected)) {
+                    @Override
+                    public int read(char[] buffer, int offset, int length) throws IOException {
+                        return super.read(buffer, offset, Math.min(length, 1));
+                    }
+                };
+                try (PrologParser parser = new PrologParser(slowReader)) {
+                    assertEquals(facts.get(0).toString(), parser.next().toString(), "Chunked parse mismatch: " + expectedFile);
+                    assertTrue(parser.next() == null, "Unexpected trailing fact in " + expectedFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the query engine over the expected full output and verifies its answers about the sample module. Nested
+     * types are also checked on a small hierarchy of nested types, whose names must be usable in further queries.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testQueryEngine() throws IOException {
+        String basic = "io.github.grimch.doclet.sample_module.types.basic.";
+        String advanced = "io.github.grimch.doclet.sample_module.types.advanced.";
+        FactQueryEngine engine = FactQueryEngine.load(Paths.get("src/test/resources/expected_output/full"));
+
+        assertEquals(19, engine.getTypeCount(), "Unexpected number of types");
+        assertEquals("interface", engine.getType(basic + "I1").getPredicate());
+        assertEquals(List.of(advanced + "C4", basic + "C1"), engine.getImplementors(basic + "I1"));
+        assertEquals(List.of(basic + "C1", basic + "R1"), engine.getImplementors("java.io.Serializable").subList(0, 2));
+        assertEquals(List.of(basic + "C3"), engine.getSubtypes(basic + "C2"));
+        assertEquals(List.of(basic + "E1#valueOf"), engine.getMethodsReturning(basic + "E1").stream()
+                .map(FactQueryEngine.Member::toString).collect(Collectors.toList()));
+        assertTrue(engine.getAnnotatedMembers("java.lang.Override").stream()
+                .map(FactQueryEngine.Member::getDeclaringType).collect(Collectors.toSet())
+                .containsAll(List.of(basic + "C3", advanced + "C4")), "Missing annotated members");
+        assertTrue(engine.getImplementors("java.lang.Missing").isEmpty(), "Found implementors of a missing type");
+        assertEquals("class", engine.getType(basic + "C1.InnerC2").getPredicate());
+        assertTrue(engine.getType(basic + "InnerC2") == null, "Nested type found by its file name");
+        String utility = "io.github.grimch.doclet.sample_module.types.utility.";
+        for (String type : List.of("C6", "C7")) {
+            assertTrue(engine.getMethodsReturning(utility + type).stream().map(FactQueryEngine.Member::toString)
+                    .anyMatch((utility + type + ".Builder#build")::equals), "Builders sharing a name mixed up");
+        }
+
+        String facts = "class('Outer', p, [], [], 'null', [], [], [], [], '').\n"
+                + "class('Base', p, [], [], 'null', [], [], [], [], '').\n"
+                + "class('Derived', p, [], [], extends(declared, declared_type('p.Outer.Base', [])), [], [], [], [], '').\n"
+                + "nested_type_index([nested_types('p.Outer', ['p.Outer.Base']), nested_types('p.Outer.Base', ['p.Outer.Base.Derived'])]).\n";
+        try (PrologParser parser = new PrologParser(new StringReader(facts))) {
+            FactQueryEngine nested = new FactQueryEngine(Schema.load(), parser.readAll());
+            assertEquals(List.of("p.Outer.Base.Derived"), nested.getSubtypes("p.Outer.Base"));
+            assertTrue(nested.getType(nested.getSubtypes("p.Outer.Base").get(0)) != null, "Subtype not found by its name");
+            assertTrue(nested.getType("p.Outer") != null, "Top level type not found");
+        }
+    }
+
+    /**
+     * Starts the fact server over a copy of the expected output and verifies its answers, that a file is served
+     * from the cache when asked for again and reloaded once it changed, and that malformed requests are rejected.
+     * The server is then opened on an archive with a cache too small for the output, which must evict files.
+     *
+     * @throws IOException if an error occurs during file I/O operations or while requesting the server.
+     */
+    @Test
+    public void testFactServer() throws IOException {
+        String basic = "io.github.grimch.doclet.sample_module.types.basic";
+        Path expectedDir = Paths.get("src/test/resources/expected_output");
+        Path serverDir = outputDir.resolve("server");
+        try (Stream<Path> files = Files.walk(expectedDir)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                Path copy = serverDir.resolve(expectedDir.relativize(file).toString());
+                Files.createDirectories(copy.getParent());
+                Files.copy(file, copy);
+            }
+        }
+        Path typeFile = serverDir.resolve("minimal/" + basic.replace('.', '/') + "/C1.pl");
+        try (FactServer server = new FactServer(serverDir, 0, 1 << 20)) {
+            server.start();
+            String url = "http://127.0.0.1:" + server.getPort();
+            assertEquals(Files.readString(typeFile), get(url + "/type/" + basic + ".C1"));
+            assertEquals(Files.readString(typeFile), get(url + "/type/" + basic + ".C1"));
+            assertEquals(1, server.getCache().getHitCount(), "Type not served from the cache");
+            assertEquals(Files.readString(serverDir.resolve("full/" + basic.replace('.', '/') + "/InnerC2.pl")),
+                    get(url + "/type/" + basic + ".C1.InnerC2?mode=full"));
+            String utility = "io.github.grimch.doclet.sample_module.types.utility";
+            assertEquals(Files.readString(serverDir.resolve("minimal/" + utility.replace('.', '/') + "/C7.Builder.pl")),
+                    get(url + "/type/" + utility + ".C7.Builder"));
+            assertEquals(Files.readString(serverDir.resolve("minimal/" + utility.replace('.', '/') + "/Builder.pl")),
+                    get(url + "/type/" + utility + ".C6.Builder"));
+            assertTrue(get(url + "/member/" + basic + ".C1/m1").startsWith("method(m1, "), "Unexpected member");
+            assertTrue(get(url + "/index/subtype_index").startsWith("subtype_index("), "Unexpected index");
+            assertTrue(get(url + "/package/" + basic).startsWith("package_declaration("), "Unexpected package");
+            assertTrue(get(url + "/context/" + basic + ".C1/m1?budget=300").startsWith("method(m1, "), "Unexpected context");
+            assertEquals(400, status(url + "/context/" + basic + ".C1"));
+            assertEquals(404, status(url + "/type/" + basic + ".Missing"));
+            assertEquals(400, status(url + "/index/..%2Fsecret"));
+            assertEquals(400, status(url + "/type/" + basic + ".C1?mode=other"));
+
+            // A regenerated file is dropped from the cache, as the watcher does for every changed file
+            Files.writeString(typeFile, "class('C1').\n");
+            server.sourceChanged(typeFile);
+            assertEquals("class('C1').\n", get(url + "/type/" + basic + ".C1"), "Regenerated file not reloaded");
+            server.sourceChanged(outputDir.resolve("elsewhere.pl"));
+        }
+
+        // A small cache evicts the least recently used files, also when serving an archive
+        Path archiveFile = outputDir.resolve("server.zip");
+        try (PrologArchive archive = new PrologArchive(archiveFile, expectedDir);
+             Stream<Path> files = Files.walk(expectedDir)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                archive.write(file, ByteBuffer.wrap(Files.readAllBytes(file)));
+            }
+        }
+        try (FactServer server = new FactServer(archiveFile, 0, 4096)) {
+            for (String type : List.of("C1", "C2", "C3", "E1", "I1", "R1", "R2")) {
+                assertTrue(server.getLookup().getType("minimal", basic + "." + type) != null, "Missing type " + type);
+            }
+            assertTrue(server.getCache().getSize() <= 4096, "Cache exceeds its maximum size");
+            assertTrue(server.getCache().getEvictionCount() > 0, "Nothing evicted");
+        }
+    }
+
+    /**
+     * Packs the facts around a type and a method of the expected output and verifies their ranking, that a budget is
+     * never exceeded and is measured like the token report, and that missing targets are not packed.
+     *
+     * @throws IOException if an error occurs while reading the expected output.
+     */
+    @Test
+    public void testContextPacker() throws IOException {
+        String basic = "io.github.grimch.doclet.sample_module.types.basic.";
+        try (FactSource source = new FactSource(Paths.get("src/test/resources/expected_output"))) {
+            ContextPacker packer = new ContextPacker(new FactLookup(new FactCache(1 << 20, source), Schema.load()));
+
+            ContextPacker.ContextPack pack = packer.pack("minimal", basic + "C3", 100_000);
+            assertEquals(List.of(basic + "C3", basic + "C3", basic + "C2"), pack.getNames().subList(0, 3));
+            assertTrue(pack.getFacts().get(1).startsWith("type_hierarchy('C3', "), "Hierarchy not ranked second");
+            assertTrue(pack.getNames().containsAll(List.of(basic + "E1", basic + "R2", basic + "TestAnno")), "Missing siblings");
+            assertEquals(0, pack.getOmittedCount());
+            TokenCounter tokenCounter = new TokenCounter();
+            assertEquals(pack.getFacts().stream().mapToInt(tokenCounter::count).sum(), pack.getTokenCount(),
+                    "Budget not measured like the token report");
+
+            ContextPacker.ContextPack small = packer.pack("minimal", basic + "C3", 1000);
+            assertTrue(small.getTokenCount() <= 1000, "Budget exceeded");
+            assertTrue(small.getOmittedCount() > 0, "Nothing omitted");
+            assertEquals(pack.getFacts().subList(0, 3), small.getFacts().subList(0, 3));
+
+            ContextPacker.ContextPack method = packer.pack("minimal", basic + "C1#m1", 300);
+            assertTrue(method.getFacts().get(0).startsWith("method(m1, "), "Method not ranked first");
+            assertTrue(method.getTokenCount() <= 300, "Budget exceeded");
+            assertTrue(packer.pack("minimal", basic + "C1#missing", 300) == null, "Packed a missing method");
+            assertTrue(packer.pack("minimal", basic + "Missing", 300) == null, "Packed a missing type");
+        }
+    }
+
+    /**
+     * Executes the {@link LogiDoclet} with a token report and verifies the report's total, package and type facts and
+     * the order of the heaviest types. The {@link TokenCounter} is then loaded from a small vocabulary and checked
+     * against counts worked out by hand.
+     *
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    @Test
+    public void testTokenReport() throws IOException {
+        Path tokenOutputDir = outputDir.resolve("tokens");
+        String[] args = {
+                "-doclet", LogiDoclet.class.getName(),
+                "-d", tokenOutputDir.toString(),
+                "-outputMode", "minimal",
+                "-tokenReport", "true",
+                "--source-path", "src/test/resources/sample_module",
+                "-subpackages",  "io.github.grimch.doclet.sample_module"
+        };
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        int result = tool.run(null, null, null, args);
+        assertEquals(0, result, "Javadoc tool execution failed");
+
+        List<String> report = Files.readAllLines(tokenOutputDir.resolve("minimal").resolve(TokenReport.FILE_NAME + ".pl"));
+        assertTrue(report.get(0).startsWith("token_total("), "Report does not start with the total: " + report.get(0));
+        String basic = "'io.github.grimch.doclet.sample_module.types.basic', ";
+        assertTrue(report.stream().anyMatch(line -> line.startsWith("type_tokens(" + basic + "'io.github.grimch.doclet.sample_module.types.basic.C1', ")),
+                "Missing tokens of C1");
+        assertTrue(report.stream().anyMatch(line -> line.startsWith("type_tokens(" + basic + "'io.github.grimch.doclet.sample_module.types.basic.C1.InnerC2', ")),
+                "Missing tokens of C1.InnerC2 by its qualified name");
+        String utility = "io.github.grimch.doclet.sample_module.types.utility.";
+        List<String> builders = report.stream()
+                .filter(line -> line.startsWith("heaviest_type(") && line.contains(".Builder'"))
+                .map(line -> line.substring(line.indexOf('\'') + 1, line.lastIndexOf('\'')))
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of(utility + "C6.Builder", utility + "C7.Builder"), builders, "Builders not reported apart");
+        long basicTypeTokens = report.stream()
+                .filter(line -> line.startsWith("type_tokens(" + basic))
+                .mapToLong(line -> Long.parseLong(line.substring(line.lastIndexOf(", ") + 2, line.lastIndexOf(')'))))
+                .sum();
+        String basicPackage = report.stream().filter(line -> line.startsWith("package_tokens(" + basic)).findFirst().orElseThrow();
+        long basicPackageTokens = Long.parseLong(basicPackage.substring(("package_tokens(" + basic).length(), basicPackage.lastIndexOf(", ")));
+        assertTrue(basicPackageTokens > basicTypeTokens, "Package tokens do not cover its types and package files: " + basicPackage);
+        List<Long> heaviest = report.stream()
+                .filter(line -> line.startsWith("heaviest_type("))
+                .map(line -> Long.parseLong(line.substring(line.lastIndexOf(", ") + 2, line.lastIndexOf(')'))))
+                .collect(Collectors.toList());
+        assertEquals(19, heaviest.size());
+        for (int i = 1; i < heaviest.size(); i++) {
+            assertTrue(heaviest.get(i - 1) >= heaviest.get(i), "Heaviest types not sorted: " + heaviest);
+        }
+
+        Path vocabularyFile = tokenOutputDir.resolve("vocabulary.txt");
+        Files.write(vocabularyFile, List.of("class", "\u0120Counter", "KCg= 0"), StandardCharsets.UTF_8);
+        TokenCounter counter = TokenCounter.load(vocabularyFile);
+        assertTrue(counter.hasVocabulary());
+        assertEquals(2, counter.count("class Counter"));
+        assertEquals(7, counter.count("class Count"));
+        assertEquals(1, counter.count("(("));
+        assertTrue(new TokenCounter().count("type_tokens('C1', 42).") > 0, "Nothing counted without a vocabulary");
+    }
+
+    private static String get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int status(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
     /**
      * Executes the {@link LogiDoclet} on a sample project and verifies its output .
      * <p>
@@ -144,12 +865,35 @@ public class LogiDocletTest {
      * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
      */
     private void testDoclet(String[] args, String mode) throws IOException {
+        testDoclet(args, mode, outputDir);
+    }
+
+    /**
+     * Executes the javadoc tool with the given arguments and compares the output of the given mode,
+     * found below {@code actualRoot}, with the expected output.
+     *
+     * @param args       The arguments to pass to the javadoc.
+     * @param mode       The output mode subdirectory to compare (minimal or full).
+     * @param actualRoot The output directory passed to the doclet.
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    private void testDoclet(String[] args, String mode, Path actualRoot) throws IOException {
         DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
         int result = tool.run(null, null, null, args);
         assertEquals(0, result, "Javadoc tool execution failed");
+        assertOutput(mode, actualRoot);
+    }
 
+    /**
+     * Compares the output of the given mode, found below {@code actualRoot}, line by line with the expected output.
+     *
+     * @param mode       The output mode subdirectory to compare (minimal or full).
+     * @param actualRoot The output directory passed to the doclet.
+     * @throws IOException if an error occurs during file I/O operations (e.g., reading or deleting files).
+     */
+    private void assertOutput(String mode, Path actualRoot) throws IOException {
         Path expectedDir = Paths.get("src/test/resources/expected_output/" + mode);
-        Path actualDir = outputDir.resolve(mode);
+        Path actualDir = actualRoot.resolve(mode);
 
         try (Stream<Path> expectedFiles = Files.walk(expectedDir)) {
             expectedFiles
@@ -0,0 +1,16 @@
+annotation_usage_index(
+    [
+        annotation_usages(
+            'io.github.grimch.doclet.sample_module.types.basic.TestAnno',
+            ['io.github.grimch.doclet.sample_module.types.basic.C1#getList', 'io.github.grimch.doclet.sample_module.types.basic.C1#publicGenericList']
+        ),
+        annotation_usages(
+            'java.lang.Deprecated',
+            ['io.github.grimch.doclet.sample_module.types.basic.C1#m4', 'io.github.grimch.doclet.sample_module.types.utility.C5']
+        ),
+        annotation_usages(
+            'java.lang.Override',
+            ['io.github.grimch.doclet.sample_module.types.advanced.C4#m1', 'io.github.grimch.doclet.sample_module.types.advanced.C4#m2', 'io.github.grimch.doclet.sample_module.types.basic.C1#m1', 'io.github.grimch.doclet.sample_module.types.basic.C3#m7']
+        )
+    ]
+).
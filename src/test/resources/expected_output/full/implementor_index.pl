@@ -0,0 +1,16 @@
+implementor_index(
+    [
+        implementors(
+            'io.github.grimch.doclet.sample_module.types.advanced.I2',
+            ['io.github.grimch.doclet.sample_module.types.advanced.C4']
+        ),
+        implementors(
+            'io.github.grimch.doclet.sample_module.types.basic.I1',
+            ['io.github.grimch.doclet.sample_module.types.advanced.C4', 'io.github.grimch.doclet.sample_module.types.basic.C1']
+        ),
+        implementors(
+            'java.io.Serializable',
+            ['io.github.grimch.doclet.sample_module.types.basic.C1', 'io.github.grimch.doclet.sample_module.types.basic.R1']
+        )
+    ]
+).
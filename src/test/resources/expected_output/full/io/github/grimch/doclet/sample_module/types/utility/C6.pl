@@ -0,0 +1,49 @@
+class(
+    'C6',
+    'io.github.grimch.doclet.sample_module.types.utility',
+    [
+        modifier(public)
+    ],
+    [],
+    'null',
+    [],
+    [],
+    [
+        constructor(
+            '<init>',
+            [
+                modifier(public)
+            ],
+            [],
+            [],
+            [],
+            [],
+            ''
+        ),
+        method(
+            build,
+            [
+                modifier(public)
+            ],
+            [],
+            declared_type('io.github.grimch.doclet.sample_module.types.utility.C6', []),
+            [],
+            [],
+            [],
+            ' Creates the instance.\n @return A new instance of {@link C6}.\n'
+        ),
+        constructor(
+            '<init>',
+            [
+                modifier(public)
+            ],
+            [],
+            [],
+            [],
+            [],
+            ''
+        )
+    ],
+    [],
+    ' Represents a utility class built by a nested builder.\n Its builder shares its simple name with the builder of {@link C7}.\n'
+).
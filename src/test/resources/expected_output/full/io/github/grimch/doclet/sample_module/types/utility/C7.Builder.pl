@@ -0,0 +1,39 @@
+class(
+    'Builder',
+    'io.github.grimch.doclet.sample_module.types.utility',
+    [
+        modifier(public),
+        modifier(static)
+    ],
+    [],
+    'null',
+    [],
+    [],
+    [
+        constructor(
+            '<init>',
+            [
+                modifier(public)
+            ],
+            [],
+            [],
+            [],
+            [],
+            ''
+        ),
+        method(
+            build,
+            [
+                modifier(public)
+            ],
+            [],
+            declared_type('io.github.grimch.doclet.sample_module.types.utility.C7', []),
+            [],
+            [],
+            [],
+            ' Creates the instance.\n @return A new instance of {@link C7}.\n'
+        )
+    ],
+    [],
+    ' Builds instances of {@link C7}.\n'
+).
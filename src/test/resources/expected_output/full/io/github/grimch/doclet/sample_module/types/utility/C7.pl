@@ -0,0 +1,49 @@
+class(
+    'C7',
+    'io.github.grimch.doclet.sample_module.types.utility',
+    [
+        modifier(public)
+    ],
+    [],
+    'null',
+    [],
+    [],
+    [
+        constructor(
+            '<init>',
+            [
+                modifier(public)
+            ],
+            [],
+            [],
+            [],
+            [],
+            ''
+        ),
+        method(
+            build,
+            [
+                modifier(public)
+            ],
+            [],
+            declared_type('io.github.grimch.doclet.sample_module.types.utility.C7', []),
+            [],
+            [],
+            [],
+            ' Creates the instance.\n @return A new instance of {@link C7}.\n'
+        ),
+        constructor(
+            '<init>',
+            [
+                modifier(public)
+            ],
+            [],
+            [],
+            [],
+            [],
+            ''
+        )
+    ],
+    [],
+    ' Represents another utility class built by a nested builder.\n Its builder shares its simple name with the builder of {@link C6}.\n'
+).
@@ -0,0 +1,55 @@
+package_hierarchy(
+    'io.github.grimch.doclet.sample_module.types.utility',
+    [
+        type_hierarchy(
+            'Builder',
+            ['java.lang.Object'],
+            [
+                inherited(
+                    'java.lang.Object',
+                    ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()']
+                )
+            ]
+        ),
+        type_hierarchy(
+            'Builder',
+            ['java.lang.Object'],
+            [
+                inherited(
+                    'java.lang.Object',
+                    ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()']
+                )
+            ]
+        ),
+        type_hierarchy(
+            'C5',
+            ['java.lang.Object'],
+            [
+                inherited(
+                    'java.lang.Object',
+                    ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()']
+                )
+            ]
+        ),
+        type_hierarchy(
+            'C6',
+            ['java.lang.Object'],
+            [
+                inherited(
+                    'java.lang.Object',
+                    ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()']
+                )
+            ]
+        ),
+        type_hierarchy(
+            'C7',
+            ['java.lang.Object'],
+            [
+                inherited(
+                    'java.lang.Object',
+                    ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()']
+                )
+            ]
+        )
+    ]
+).
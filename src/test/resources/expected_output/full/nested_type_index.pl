@@ -0,0 +1,20 @@
+nested_type_index(
+    [
+        nested_types(
+            'io.github.grimch.doclet.sample_module.types.advanced.C4',
+            ['io.github.grimch.doclet.sample_module.types.advanced.C4.InnerC3', 'io.github.grimch.doclet.sample_module.types.advanced.C4.NestedGenericC4']
+        ),
+        nested_types(
+            'io.github.grimch.doclet.sample_module.types.basic.C1',
+            ['io.github.grimch.doclet.sample_module.types.basic.C1.InnerC2', 'io.github.grimch.doclet.sample_module.types.basic.C1.StaticNestedC1']
+        ),
+        nested_types(
+            'io.github.grimch.doclet.sample_module.types.utility.C6',
+            ['io.github.grimch.doclet.sample_module.types.utility.C6.Builder']
+        ),
+        nested_types(
+            'io.github.grimch.doclet.sample_module.types.utility.C7',
+            ['io.github.grimch.doclet.sample_module.types.utility.C7.Builder']
+        )
+    ]
+).
@@ -0,0 +1,8 @@
+subtype_index(
+    [
+        subtypes(
+            'io.github.grimch.doclet.sample_module.types.basic.C2',
+            ['io.github.grimch.doclet.sample_module.types.basic.C3']
+        )
+    ]
+).
@@ -0,0 +1 @@
+package_hierarchy('io.github.grimch.doclet.sample_module.types.advanced', [type_hierarchy('C4', ['java.lang.Object', 'io.github.grimch.doclet.sample_module.types.advanced.I2', 'io.github.grimch.doclet.sample_module.types.basic.I1'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])]), type_hierarchy('I2', ['java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)'])]), type_hierarchy('InnerC3', ['java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])]), type_hierarchy('NestedGenericC4', ['java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])])]).
@@ -0,0 +1 @@
+package_hierarchy('io.github.grimch.doclet.sample_module.types.basic', [type_hierarchy('C1', ['java.lang.Object', 'io.github.grimch.doclet.sample_module.types.basic.I1', 'java.io.Serializable'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()']), inherited('io.github.grimch.doclet.sample_module.types.basic.I1', ['m2(java.lang.Object)'])]), type_hierarchy('C2', ['java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])]), type_hierarchy('C3', ['io.github.grimch.doclet.sample_module.types.basic.C2', 'java.lang.Object'], [inherited('io.github.grimch.doclet.sample_module.types.basic.C2', [protectedGenericField, publicGenericList, 'm8(java.util.List)']), inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])]), type_hierarchy('E1', ['java.lang.Enum', 'java.lang.Object', 'java.lang.constant.Constable', 'java.lang.Comparable', 'java.io.Serializable'], [inherited('java.lang.Enum', ['name()', 'ordinal()', 'toString()', 'equals(java.lang.Object)', 'hashCode()', 'clone()', 'compareTo(java.lang.Enum)', 'getDeclaringClass()', 'describeConstable()', 'valueOf(java.lang.Class,java.lang.String)', 'finalize()']), inherited('java.lang.Object', ['getClass()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)'])]), type_hierarchy('I1', ['java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)'])]), type_hierarchy('InnerC2', ['java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])]), type_hierarchy('R1', ['java.lang.Record', 'java.io.Serializable', 'java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'clone()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])]), type_hierarchy('R2', ['java.lang.Record', 'java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'clone()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])]), type_hierarchy('StaticNestedC1', ['java.lang.Object'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'clone()', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)', 'finalize()'])]), type_hierarchy('TestAnno', ['java.lang.Object', 'java.lang.annotation.Annotation'], [inherited('java.lang.Object', ['getClass()', 'hashCode()', 'equals(java.lang.Object)', 'toString()', 'notify()', 'notifyAll()', 'wait()', 'wait(long)', 'wait(long,int)']), inherited('java.lang.annotation.Annotation', ['annotationType()'])])]).
@@ -0,0 +1 @@
+class('Builder', 'io.github.grimch.doclet.sample_module.types.utility', [modifier(public), modifier(static)], [], 'null', [], [], [constructor('<init>', [modifier(public)], [], [], [], [], ''), method(build, [modifier(public)], [], declared_type('io.github.grimch.doclet.sample_module.types.utility.C6', []), [], [], [], '')], [], '').
@@ -0,0 +1 @@
+class('C6', 'io.github.grimch.doclet.sample_module.types.utility', [modifier(public)], [], 'null', [], [], [constructor('<init>', [modifier(public)], [], [], [], [], ''), method(build, [modifier(public)], [], declared_type('io.github.grimch.doclet.sample_module.types.utility.C6', []), [], [], [], ''), constructor('<init>', [modifier(public)], [], [], [], [], '')], [], '').
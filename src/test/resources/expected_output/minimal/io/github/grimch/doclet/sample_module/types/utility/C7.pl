@@ -0,0 +1 @@
+class('C7', 'io.github.grimch.doclet.sample_module.types.utility', [modifier(public)], [], 'null', [], [], [constructor('<init>', [modifier(public)], [], [], [], [], ''), method(build, [modifier(public)], [], declared_type('io.github.grimch.doclet.sample_module.types.utility.C7', []), [], [], [], ''), constructor('<init>', [modifier(public)], [], [], [], [], '')], [], '').
@@ -1 +1 @@
-package_declaration('io.github.grimch.doclet.sample_module.types.utility', [type_declaration('C5', 'CLASS')]).
+package_declaration('io.github.grimch.doclet.sample_module.types.utility', [type_declaration('C5', 'CLASS'), type_declaration('Builder', 'CLASS'), type_declaration('C6', 'CLASS'), type_declaration('Builder', 'CLASS'), type_declaration('C7', 'CLASS')]).